@@ -1,15 +1,97 @@
 package com.nexon.nutriai.config.bean;
 
+import com.nexon.nutriai.config.properties.CacheProperties;
+import com.nexon.nutriai.constant.CacheConstant;
+import com.nexon.nutriai.pojo.FoodIdentification;
+import com.nexon.nutriai.pojo.dto.UserInformationDTO;
 import com.nexon.nutriai.util.cache.Cache;
-import com.nexon.nutriai.util.cache.InMemoryCache;
+import com.nexon.nutriai.util.cache.CacheManager;
+import com.nexon.nutriai.util.cache.DefaultReactiveCache;
+import com.nexon.nutriai.util.cache.MemoryPressureMonitor;
+import com.nexon.nutriai.util.cache.ReactiveCache;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
 
 @Configuration
 public class CacheConfig {
 
+    @Bean(destroyMethod = "shutdown")
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        Path snapshotDirectory = StringUtils.isNotEmpty(cacheProperties.snapshotDirectory())
+                ? Path.of(cacheProperties.snapshotDirectory()) : null;
+        return new CacheManager(cacheProperties.regionSpecs(), cacheProperties.defaultSpec(), snapshotDirectory);
+    }
+
+    /**
+     * 老年代占用率超过水位线时淘汰各区域的低价值条目，未开启时不监听
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "app.cache.memory-pressure.enabled", havingValue = "true")
+    public MemoryPressureMonitor memoryPressureMonitor(CacheManager cacheManager, CacheProperties cacheProperties) {
+        CacheProperties.MemoryPressure memoryPressure = cacheProperties.memoryPressure();
+        return new MemoryPressureMonitor(cacheManager, memoryPressure.watermark(), memoryPressure.shedFraction(),
+                memoryPressure.minInterval());
+    }
+
+    /**
+     * 用户信息缓存，键为手机号
+     */
+    @Bean
+    public Cache<String, UserInformationDTO> userCache(CacheManager cacheManager) {
+        return cacheManager.getCache(CacheConstant.USER_INFO, String.class, UserInformationDTO.class);
+    }
+
+    /**
+     * 微信绑定流程中 state 与 openId 的对应关系
+     */
+    @Bean
+    public Cache<String, String> openIdCache(CacheManager cacheManager) {
+        return cacheManager.getCache(CacheConstant.OPEN_ID);
+    }
+
+    /**
+     * 已校验通过的访问令牌，键为令牌，值为手机号
+     */
+    @Bean
+    public Cache<String, String> jwtVerificationCache(CacheManager cacheManager) {
+        return cacheManager.getCache(CacheConstant.JWT_VERIFICATION);
+    }
+
+    /**
+     * 图片识别结果，键为图片内容摘要
+     */
+    @Bean
+    public Cache<String, FoodIdentification> visionResultCache(CacheManager cacheManager) {
+        return cacheManager.getCache(CacheConstant.VISION_RESULTS, String.class, FoodIdentification.class);
+    }
+
+    /**
+     * 对话会话当前的最大序列号，只由日志写入线程读写
+     */
+    @Bean
+    public Cache<String, Integer> dialogueSequenceCache(CacheManager cacheManager) {
+        return cacheManager.getCache(CacheConstant.DIALOGUE_SEQUENCE);
+    }
+
+    /**
+     * 缓存加载专用调度器，与业务使用的 boundedElastic 隔离
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler cacheLoaderScheduler() {
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "cache-loader", 60, true);
+    }
+
     @Bean
-    public <K, V> Cache<K, V> cache() {
-        return new InMemoryCache<>();
+    public ReactiveCache<String, UserInformationDTO> userReactiveCache(@Qualifier("userCache") Cache<String, UserInformationDTO> userCache,
+                                                                       @Qualifier("cacheLoaderScheduler") Scheduler cacheLoaderScheduler) {
+        return new DefaultReactiveCache<>(userCache, cacheLoaderScheduler);
     }
 }
@@ -25,9 +25,11 @@ import java.util.UUID;
 public class DynamicSseFilter implements WebFilter {
 
     private final SseTransformerFactory transformerFactory;
+    private final ObjectMapper objectMapper;
 
-    public DynamicSseFilter(SseTransformerFactory transformerFactory) {
+    public DynamicSseFilter(SseTransformerFactory transformerFactory, ObjectMapper objectMapper) {
         this.transformerFactory = transformerFactory;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -53,7 +55,7 @@ public class DynamicSseFilter implements WebFilter {
         }
 
         // 创建转换上下文
-        SseContext context = new SseContext(chatId, model, contentType, exchange.getResponse().bufferFactory(), new ObjectMapper());
+        SseContext context = new SseContext(chatId, model, contentType, exchange.getResponse().bufferFactory(), objectMapper);
 
         // 从工厂获取转换器
 
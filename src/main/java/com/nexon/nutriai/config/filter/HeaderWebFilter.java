@@ -1,9 +1,12 @@
 package com.nexon.nutriai.config.filter;
 
 import com.nexon.nutriai.config.properties.JwtProperties;
+import com.nexon.nutriai.constant.CacheConstant;
 import com.nexon.nutriai.constant.HttpHeaderConstant;
 import com.nexon.nutriai.util.JwtUtil;
 import com.nexon.nutriai.util.WebFluxUtil;
+import com.nexon.nutriai.util.cache.Cache;
+import com.nexon.nutriai.util.cache.CacheManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -36,6 +39,8 @@ public class HeaderWebFilter implements WebFilter {
 
     private final JwtProperties jwtProperties;
     private final JwtUtil jwtUtil;
+    private final Cache<String, String> jwtVerificationCache;
+    private final CacheManager cacheManager;
 
     @NotNull
     @Override
@@ -88,16 +93,45 @@ public class HeaderWebFilter implements WebFilter {
     }
 
     private Mono<String> validateJwtToken(String token) {
+        // 已校验过的令牌直接取出手机号，跳过验签和线程切换
+        String cachedPhone = jwtVerificationCache.get(token);
+        if (cachedPhone != null) {
+            return Mono.just(cachedPhone);
+        }
         return Mono.fromCallable(() -> {
                     if (!jwtUtil.validateToken(token) || jwtUtil.isRefreshToken(token)) {
                         throw new IllegalArgumentException("Invalid or refresh token");
                     }
-                    return jwtUtil.getSubjectFromToken(token);
+                    String phone = jwtUtil.getSubjectFromToken(token);
+                    cacheVerifiedToken(token, phone);
+                    return phone;
                 })
                 .subscribeOn(Schedulers.boundedElastic())
                 .onErrorMap(ex -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized", ex));
     }
 
+    /**
+     * 缓存校验结果，缓存时间取区域配置的过期时间和令牌剩余有效期中较短的一个，
+     * 缓存的令牌至少每个区域过期时间重新校验一次
+     */
+    private void cacheVerifiedToken(String token, String phone) {
+        long expiresAt = jwtUtil.getExpiresAtFromToken(token);
+        if (expiresAt == 0) {
+            jwtVerificationCache.put(token, phone);
+            return;
+        }
+        long remaining = expiresAt - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        long regionTtl = cacheManager.getSpec(CacheConstant.JWT_VERIFICATION).expireAfterWrite();
+        if (regionTtl > 0 && remaining >= regionTtl) {
+            jwtVerificationCache.put(token, phone);
+        } else {
+            jwtVerificationCache.put(token, phone, remaining);
+        }
+    }
+
     private Mono<Void> handleUnauthorized(ServerHttpResponse response, String message) {
         response.setStatusCode(HttpStatus.UNAUTHORIZED);
         response.getHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json; charset=UTF-8");
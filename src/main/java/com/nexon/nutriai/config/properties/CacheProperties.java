@@ -0,0 +1,82 @@
+package com.nexon.nutriai.config.properties;
+
+import com.nexon.nutriai.util.cache.CacheSpec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties("app.cache")
+public record CacheProperties(Region defaults, Map<String, Region> regions, String snapshotDirectory,
+                              MemoryPressure memoryPressure) {
+
+    /**
+     * 区域配置，未填写的项沿用 defaults
+     *
+     * @param keyType 键类型，PHONE 表示键为 11 位手机号
+     * @param persistent 是否持久化到 snapshotDirectory，仅对区域生效，不从 defaults 继承
+     */
+    public record Region(Long maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite, KeyType keyType,
+                         Boolean persistent) {
+    }
+
+    /**
+     * 堆内存压力淘汰
+     *
+     * @param watermark GC 后老年代占用率超过该值时淘汰
+     * @param shedFraction 每次淘汰各区域条目的比例
+     * @param minInterval 两次淘汰的最小间隔
+     */
+    public record MemoryPressure(boolean enabled, Double watermark, Double shedFraction, Duration minInterval) {
+
+        public MemoryPressure {
+            if (watermark == null) {
+                watermark = 0.85;
+            }
+            if (shedFraction == null) {
+                shedFraction = 0.2;
+            }
+            if (minInterval == null) {
+                minInterval = Duration.ofSeconds(30);
+            }
+        }
+    }
+
+    public enum KeyType {
+        STRING, PHONE
+    }
+
+    public CacheProperties {
+        if (defaults == null) {
+            defaults = new Region(10_000L, null, null, KeyType.STRING, false);
+        }
+        if (regions == null) {
+            regions = new HashMap<>();
+        }
+        if (memoryPressure == null) {
+            memoryPressure = new MemoryPressure(false, null, null, null);
+        }
+    }
+
+    public CacheSpec defaultSpec() {
+        return toSpec(defaults);
+    }
+
+    public Map<String, CacheSpec> regionSpecs() {
+        Map<String, CacheSpec> specs = new HashMap<>();
+        regions.forEach((name, region) -> specs.put(name, toSpec(region)));
+        return specs;
+    }
+
+    private CacheSpec toSpec(Region region) {
+        Long maximumSize = region.maximumSize() != null ? region.maximumSize() : defaults.maximumSize();
+        Duration expireAfterWrite = region.expireAfterWrite() != null ? region.expireAfterWrite() : defaults.expireAfterWrite();
+        Duration refreshAfterWrite = region.refreshAfterWrite() != null ? region.refreshAfterWrite() : defaults.refreshAfterWrite();
+        return new CacheSpec(maximumSize != null ? maximumSize : 10_000L,
+                expireAfterWrite != null ? expireAfterWrite.toMillis() : 0,
+                refreshAfterWrite != null ? refreshAfterWrite.toMillis() : 0,
+                region.keyType() == KeyType.PHONE,
+                Boolean.TRUE.equals(region.persistent()));
+    }
+}
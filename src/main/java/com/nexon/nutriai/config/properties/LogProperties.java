@@ -0,0 +1,137 @@
+package com.nexon.nutriai.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("app.log")
+public record LogProperties(Writer writer, Capture capture, Journal journal, Latency latency,
+                            SideEffects sideEffects) {
+
+    /**
+     * 日志批量写入
+     *
+     * @param queueCapacity 队列容量，队列满时新日志被丢弃并计数
+     * @param batchSize 单批最大条数，攒满立即写入
+     * @param flushInterval 未攒满时的最长等待时间
+     */
+    public record Writer(Integer queueCapacity, Integer batchSize, Duration flushInterval) {
+
+        public Writer {
+            if (queueCapacity == null) {
+                queueCapacity = 8192;
+            }
+            if (batchSize == null) {
+                batchSize = 256;
+            }
+            if (flushInterval == null) {
+                flushInterval = Duration.ofMillis(200);
+            }
+        }
+    }
+
+    /**
+     * 流式响应捕获
+     *
+     * @param maxSize 每个流最多保留的字节数，超出时省略中间部分
+     * @param headSize 保留的开头字节数，其余额度保留结尾
+     * @param chunkSize 缓冲块大小，也是结尾部分的保留粒度
+     * @param maxPooledChunks 块池最多缓存的空闲块数
+     */
+    public record Capture(DataSize maxSize, DataSize headSize, DataSize chunkSize, Integer maxPooledChunks) {
+
+        public Capture {
+            if (maxSize == null) {
+                maxSize = DataSize.ofKilobytes(128);
+            }
+            if (headSize == null) {
+                headSize = DataSize.ofBytes(maxSize.toBytes() * 3 / 4);
+            }
+            if (chunkSize == null) {
+                chunkSize = DataSize.ofKilobytes(8);
+            }
+            if (maxPooledChunks == null) {
+                maxPooledChunks = 512;
+            }
+            if (headSize.toBytes() > maxSize.toBytes()) {
+                throw new IllegalArgumentException("app.log.capture.head-size must not exceed max-size");
+            }
+            if (chunkSize.toBytes() <= 0 || chunkSize.toBytes() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("app.log.capture.chunk-size must be positive");
+            }
+        }
+    }
+
+    /**
+     * 日志 journal
+     *
+     * @param directory 段文件和检查点所在目录
+     * @param segmentSize 段文件大小，单条记录不能超过该大小
+     */
+    public record Journal(String directory, DataSize segmentSize) {
+
+        public Journal {
+            if (directory == null) {
+                directory = "./data/log-journal";
+            }
+            if (segmentSize == null) {
+                segmentSize = DataSize.ofMegabytes(64);
+            }
+            if (segmentSize.toBytes() <= 0 || segmentSize.toBytes() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("app.log.journal.segment-size must be positive and below 2GB");
+            }
+        }
+    }
+
+    /**
+     * 方法延迟统计
+     *
+     * @param slotDuration 时间槽长度，窗口按槽滚动
+     * @param windows 查询的统计窗口
+     */
+    public record Latency(Duration slotDuration, List<Duration> windows) {
+
+        public Latency {
+            if (slotDuration == null) {
+                slotDuration = Duration.ofSeconds(10);
+            }
+            if (windows == null || windows.isEmpty()) {
+                windows = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5));
+            }
+        }
+    }
+
+    /**
+     * 日志切面副作用执行器
+     *
+     * @param maxConcurrency 同时执行的任务数上限，超出时放弃该条日志
+     */
+    public record SideEffects(Integer maxConcurrency) {
+
+        public SideEffects {
+            if (maxConcurrency == null) {
+                maxConcurrency = 64;
+            }
+        }
+    }
+
+    public LogProperties {
+        if (writer == null) {
+            writer = new Writer(null, null, null);
+        }
+        if (capture == null) {
+            capture = new Capture(null, null, null, null);
+        }
+        if (journal == null) {
+            journal = new Journal(null, null);
+        }
+        if (latency == null) {
+            latency = new Latency(null, null);
+        }
+        if (sideEffects == null) {
+            sideEffects = new SideEffects(null);
+        }
+    }
+}
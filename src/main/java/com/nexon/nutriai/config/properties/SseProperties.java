@@ -0,0 +1,40 @@
+package com.nexon.nutriai.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("app.sse")
+public record SseProperties(Coalesce coalesce) {
+
+    /**
+     * SSE 输出合并
+     *
+     * @param window 首个事件之后，最多等待多久把陆续到达的增量合并为一个事件写出，为 0 时不合并
+     * @param maxBytes 合并的内容字节数达到该值时立即写出
+     */
+    public record Coalesce(Duration window, DataSize maxBytes) {
+
+        public Coalesce {
+            if (window == null) {
+                window = Duration.ofMillis(30);
+            }
+            if (maxBytes == null) {
+                maxBytes = DataSize.ofKilobytes(8);
+            }
+            if (window.isNegative()) {
+                throw new IllegalArgumentException("app.sse.coalesce.window must not be negative");
+            }
+            if (maxBytes.toBytes() <= 0) {
+                throw new IllegalArgumentException("app.sse.coalesce.max-bytes must be positive");
+            }
+        }
+    }
+
+    public SseProperties {
+        if (coalesce == null) {
+            coalesce = new Coalesce(null, null);
+        }
+    }
+}
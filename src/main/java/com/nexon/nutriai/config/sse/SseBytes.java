@@ -0,0 +1,107 @@
+package com.nexon.nutriai.config.sse;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SSE 字节级处理工具
+ *
+ * 把事件内容直接写入从 bufferFactory 申请的（池化）缓冲区，前后拼上前缀和后缀字节，
+ * 整个过程不把内容解码成 String。内容是 UTF-8 字节，多字节字符的每个字节都大于 0x7F，
+ * 不会与换行或 JSON 转义字符混淆。
+ */
+public final class SseBytes {
+
+    /**
+     * 结束事件
+     */
+    public static final byte[] DONE_FRAME = "data: [DONE]\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] DATA_LINE_BREAK = "\ndata:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private SseBytes() {
+    }
+
+    /**
+     * 用 prefix + 内容 + suffix 组成新的 SSE 事件，并释放原始缓冲区
+     *
+     * 内容按 JSON 字符串转义，或者作为 SSE 的 data 字段写入：内容中的换行之后另起一个 "data:" 行，
+     * 客户端按规范解析时得到原来的多行内容。
+     *
+     * @param bufferFactory 缓冲区工厂
+     * @param prefix 前缀字节
+     * @param source 事件内容，调用后被释放
+     * @param suffix 后缀字节
+     * @param jsonEscape true 时按 JSON 字符串转义内容，false 时按 SSE data 字段写入
+     * @return 新的缓冲区
+     */
+    public static DataBuffer frame(DataBufferFactory bufferFactory, byte[] prefix, DataBuffer source, byte[] suffix,
+                                   boolean jsonEscape) {
+        DataBuffer target = bufferFactory.allocateBuffer(prefix.length + source.readableByteCount() + suffix.length);
+        try {
+            target.write(prefix);
+            int end = source.writePosition();
+            if (jsonEscape) {
+                for (int i = source.readPosition(); i < end; i++) {
+                    writeJsonByte(target, source.getByte(i));
+                }
+            } else {
+                writeDataField(source, target, end);
+            }
+            target.write(suffix);
+            return target;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(target);
+            throw e;
+        } finally {
+            DataBufferUtils.release(source);
+        }
+    }
+
+    /**
+     * 按 SSE data 字段写入，\n、\r 和 \r\n 都作为换行
+     */
+    private static void writeDataField(DataBuffer source, DataBuffer target, int end) {
+        boolean afterCarriageReturn = false;
+        for (int i = source.readPosition(); i < end; i++) {
+            byte b = source.getByte(i);
+            if (b == '\n' && afterCarriageReturn) {
+                afterCarriageReturn = false;
+                continue;
+            }
+            afterCarriageReturn = b == '\r';
+            if (b == '\n' || b == '\r') {
+                target.write(DATA_LINE_BREAK);
+            } else {
+                target.write(b);
+            }
+        }
+    }
+
+    /**
+     * 按 JSON 字符串的规则写入一个 UTF-8 字节，非 ASCII 字节原样写入
+     */
+    private static void writeJsonByte(DataBuffer target, byte b) {
+        switch (b) {
+            case '"' -> target.write((byte) '\\').write((byte) '"');
+            case '\\' -> target.write((byte) '\\').write((byte) '\\');
+            case '\n' -> target.write((byte) '\\').write((byte) 'n');
+            case '\r' -> target.write((byte) '\\').write((byte) 'r');
+            case '\t' -> target.write((byte) '\\').write((byte) 't');
+            case '\b' -> target.write((byte) '\\').write((byte) 'b');
+            case '\f' -> target.write((byte) '\\').write((byte) 'f');
+            default -> {
+                if (b >= 0 && b < 0x20) {
+                    target.write((byte) '\\').write((byte) 'u').write((byte) '0').write((byte) '0')
+                            .write(HEX_DIGITS[b >> 4]).write(HEX_DIGITS[b & 0xF]);
+                } else {
+                    target.write(b);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nexon.nutriai.config.sse;
+
+import com.nexon.nutriai.config.properties.SseProperties;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * SSE 输出合并
+ *
+ * 模型的流式输出往往每次只有一两个字，每个事件单独写出就是一次 Netty 写入和 flush，还要重复一遍事件模板。
+ * 这里把时间窗口内陆续到达的缓冲区拼成一个，字节数达到上限时提前结束当前窗口。
+ * 转换器在包装成事件之前合并解码出的增量内容（OpenAI、NutriAi 的 delta 都是追加的，Basic 是纯文本），
+ * 合并后的内容只包装一次，客户端收到的事件更少、拼接起来的内容不变；透传的流合并的是完整的事件字节。
+ *
+ * 第一个缓冲区总是单独立即输出，首字延迟不受影响；之后的最多延迟一个窗口。
+ * 拼接使用 {@link DataBufferFactory#join}，Netty 下是组合缓冲区，不复制内容。
+ */
+@Component
+public class SseCoalescer {
+
+    private final Duration window;
+    private final long maxBytes;
+
+    public SseCoalescer(SseProperties sseProperties) {
+        SseProperties.Coalesce coalesce = sseProperties.coalesce();
+        this.window = coalesce.window();
+        this.maxBytes = coalesce.maxBytes().toBytes();
+    }
+
+    /**
+     * 合并数据流
+     *
+     * @param buffers 事件内容流，或透传时的完整事件流
+     * @param bufferFactory 缓冲区工厂
+     * @return 合并后的数据流，每个 DataBuffer 是若干个相邻输入按顺序拼接的结果
+     */
+    public Flux<DataBuffer> coalesce(Flux<DataBuffer> buffers, DataBufferFactory bufferFactory) {
+        if (window.isZero()) {
+            return buffers;
+        }
+        return Flux.defer(() -> {
+                    // 按字节数切分：第一个缓冲区单独成组，之后每组累计到 maxBytes 为止
+                    long[] pending = {-1};
+                    return buffers.windowUntil(buffer -> {
+                        if (pending[0] < 0) {
+                            pending[0] = 0;
+                            return true;
+                        }
+                        pending[0] += buffer.readableByteCount();
+                        if (pending[0] >= maxBytes) {
+                            pending[0] = 0;
+                            return true;
+                        }
+                        return false;
+                    });
+                })
+                // 组内再按时间窗口切分，窗口从组内第一个缓冲区开始计时
+                .concatMap(group -> group.bufferTimeout(Integer.MAX_VALUE, window))
+                .map(batch -> join(batch, bufferFactory))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private DataBuffer join(List<DataBuffer> batch, DataBufferFactory bufferFactory) {
+        return batch.size() == 1 ? batch.getFirst() : bufferFactory.join(batch);
+    }
+}
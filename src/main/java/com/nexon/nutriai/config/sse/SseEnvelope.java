@@ -0,0 +1,59 @@
+package com.nexon.nutriai.config.sse;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 单个流的 JSON 事件模板
+ *
+ * 同一个流的事件只有时间戳（秒）和内容不同，模板在流开始时构建一次：时间戳之前的部分、时间戳之后到内容左引号的部分、
+ * 内容之后的部分都预先编码成字节。时间戳变化时才重新拼接前缀，每个片段只需写入转义后的内容。
+ *
+ * Reactive Streams 保证同一个流的 onNext 串行发出，模板不需要同步。
+ */
+public final class SseEnvelope {
+
+    private final byte[] head;
+    private final byte[] middle;
+    private final byte[] suffix;
+
+    private long createdSecond = Long.MIN_VALUE;
+    private byte[] prefix;
+
+    /**
+     * @param head 时间戳之前的部分
+     * @param middle 时间戳之后到内容左引号的部分
+     * @param suffix 内容之后的部分，包含事件结尾的空行
+     */
+    public SseEnvelope(String head, String middle, byte[] suffix) {
+        this.head = head.getBytes(StandardCharsets.UTF_8);
+        this.middle = middle.getBytes(StandardCharsets.UTF_8);
+        this.suffix = suffix;
+    }
+
+    /**
+     * 用模板包装一个片段，并释放原始缓冲区
+     *
+     * @param bufferFactory 缓冲区工厂
+     * @param source 原始缓冲区
+     * @return 完整的 SSE 事件
+     */
+    public DataBuffer frame(DataBufferFactory bufferFactory, DataBuffer source) {
+        return SseBytes.frame(bufferFactory, prefix(System.currentTimeMillis() / 1000), source, suffix, true);
+    }
+
+    private byte[] prefix(long second) {
+        if (second != createdSecond) {
+            byte[] created = Long.toString(second).getBytes(StandardCharsets.US_ASCII);
+            byte[] bytes = new byte[head.length + created.length + middle.length];
+            System.arraycopy(head, 0, bytes, 0, head.length);
+            System.arraycopy(created, 0, bytes, head.length, created.length);
+            System.arraycopy(middle, 0, bytes, head.length + created.length, middle.length);
+            prefix = bytes;
+            createdSecond = second;
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,304 @@
+package com.nexon.nutriai.config.sse;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 增量 SSE 事件解码器
+ *
+ * 上游（Netty）可能把一个事件拆到多个 DataBuffer，也可能把多个事件合进一个 DataBuffer。
+ * 解码器在缓冲区之间保留未完成的行和事件，遇到空行时输出一个完整事件的 data，每个字节只扫描一次。
+ *
+ * 只有一行 data、且整个事件都在同一个缓冲区内时（上游正常情况下的绝大多数事件），
+ * 直接用 {@link DataBuffer#split(int)} 切出 data 所在的区间输出，不复制内容；
+ * 多行 data 或跨缓冲区的事件才复制到内部数组中拼接。未完成的行或事件超过 {@link #MAX_EVENT_SIZE} 时抛出
+ * {@link DataBufferLimitException}，上游一直不发换行时不会无限占用内存。
+ *
+ * 按 SSE 规范处理：行以 \n、\r 或 \r\n 结尾；多个 data 行用 \n 连接；注释行和 event、id、retry 字段忽略。
+ * 与规范不同的是 "data:" 之后的空格不去掉，Spring 写出的事件没有这个空格，去掉会丢失以空格开头的 token。
+ * 流结束时如果还有未以空行结尾的事件，也作为最后一个事件输出。
+ *
+ * 同一个流的 DataBuffer 串行到达，解码器不需要同步，每个流使用单独的实例。
+ */
+public final class SseEventDecoder {
+
+    /**
+     * 跨缓冲区的单行或单个事件的 data 允许的最大字节数
+     */
+    public static final int MAX_EVENT_SIZE = 1024 * 1024;
+
+    private static final byte[] DATA_FIELD = {'d', 'a', 't', 'a'};
+
+    private final DataBufferFactory bufferFactory;
+
+    /**
+     * 跨缓冲区的未完成行
+     */
+    private byte[] line = new byte[128];
+    private int lineLength;
+
+    /**
+     * 当前事件已复制的 data
+     */
+    private byte[] data = new byte[256];
+    private int dataLength;
+    private boolean hasData;
+
+    /**
+     * 当前事件只有一行 data 且在当前缓冲区内时，data 在缓冲区中的区间，尚未复制；sliceStart 为 -1 表示没有
+     */
+    private int sliceStart = -1;
+    private int sliceEnd;
+
+    /**
+     * 上一个缓冲区以 \r 结尾，下一个缓冲区开头的 \n 属于同一个换行
+     */
+    private boolean skipLineFeed;
+
+    public SseEventDecoder(DataBufferFactory bufferFactory) {
+        this.bufferFactory = bufferFactory;
+    }
+
+    /**
+     * 把原始数据流解码为事件流，每个 DataBuffer 是一个事件的 data 内容
+     *
+     * @param originalFlux 原始数据流
+     * @param bufferFactory 缓冲区工厂
+     * @return 事件流
+     */
+    public static Flux<DataBuffer> decode(Flux<DataBuffer> originalFlux, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+            SseEventDecoder decoder = new SseEventDecoder(bufferFactory);
+            return originalFlux.concatMapIterable(decoder::decode)
+                    .concatWith(Mono.fromCallable(decoder::finish));
+        });
+    }
+
+    /**
+     * 解码一个缓冲区，并释放它
+     *
+     * @param buffer 原始缓冲区
+     * @return 在这个缓冲区内结束的事件，可能为空；事件与原始缓冲区共享内存，各自独立释放
+     */
+    public List<DataBuffer> decode(DataBuffer buffer) {
+        List<DataBuffer> events = null;
+        try {
+            int lineStart = buffer.readPosition();
+            int i = lineStart;
+            while (i < buffer.writePosition()) {
+                byte b = buffer.getByte(i++);
+                if (b != '\n' && b != '\r') {
+                    skipLineFeed = false;
+                    continue;
+                }
+                if (b == '\n' && skipLineFeed) {
+                    skipLineFeed = false;
+                    lineStart = i;
+                    continue;
+                }
+                skipLineFeed = b == '\r';
+                boolean endOfEvent;
+                if (lineLength > 0) {
+                    appendLine(buffer, lineStart, i - 1);
+                    endOfEvent = processLine(buffer);
+                } else {
+                    endOfEvent = processLine(buffer, lineStart, i - 1);
+                }
+                lineStart = i;
+                if (!endOfEvent) {
+                    continue;
+                }
+                DataBuffer event;
+                if (sliceStart >= 0) {
+                    // 切出 [readPosition, sliceEnd)，只保留 data 区间可读；buffer 剩下的部分从 0 重新编号
+                    int shift = sliceEnd;
+                    event = buffer.split(shift);
+                    event.readPosition(sliceStart);
+                    sliceStart = -1;
+                    hasData = false;
+                    i -= shift;
+                    lineStart -= shift;
+                } else {
+                    event = dispatch();
+                }
+                if (event != null) {
+                    if (events == null) {
+                        events = new ArrayList<>(2);
+                    }
+                    events.add(event);
+                }
+            }
+            appendLine(buffer, lineStart, buffer.writePosition());
+            // 事件跨到下一个缓冲区，复制已收到的 data
+            copySlice(buffer);
+        } catch (RuntimeException e) {
+            if (events != null) {
+                events.forEach(DataBufferUtils::release);
+            }
+            throw e;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+        return events != null ? events : List.of();
+    }
+
+    /**
+     * 流结束时输出未以空行结尾的事件
+     *
+     * @return 最后一个事件，没有时为 null
+     */
+    public DataBuffer finish() {
+        if (lineLength > 0) {
+            processLine(null);
+        }
+        return dispatch();
+    }
+
+    /**
+     * 处理当前缓冲区 [from, to) 内的一行
+     *
+     * @return 是否为结束事件的空行
+     */
+    private boolean processLine(DataBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return true;
+        }
+        int valueStart = dataValueStart(buffer, from, length);
+        if (valueStart < 0) {
+            return false;
+        }
+        if (!hasData) {
+            sliceStart = valueStart;
+            sliceEnd = to;
+            hasData = true;
+            return false;
+        }
+        copySlice(buffer);
+        appendData((byte) '\n');
+        ensureData(to - valueStart);
+        for (int i = valueStart; i < to; i++) {
+            data[dataLength++] = buffer.getByte(i);
+        }
+        return false;
+    }
+
+    /**
+     * 处理 line 中跨缓冲区的一行，这一行不为空
+     *
+     * @param buffer 当前缓冲区，流结束时为 null
+     */
+    private boolean processLine(DataBuffer buffer) {
+        int length = lineLength;
+        lineLength = 0;
+        int valueStart = dataValueStart(line, length);
+        if (valueStart < 0) {
+            return false;
+        }
+        if (hasData) {
+            copySlice(buffer);
+            appendData((byte) '\n');
+        }
+        ensureData(length - valueStart);
+        System.arraycopy(line, valueStart, data, dataLength, length - valueStart);
+        dataLength += length - valueStart;
+        hasData = true;
+        return false;
+    }
+
+    /**
+     * 只关心 "data:..." 和没有值的 "data"，其余字段和注释行忽略
+     *
+     * @return 值在缓冲区中的起始位置，不是 data 字段时返回 -1
+     */
+    private static int dataValueStart(DataBuffer buffer, int from, int length) {
+        if (length < DATA_FIELD.length) {
+            return -1;
+        }
+        for (int i = 0; i < DATA_FIELD.length; i++) {
+            if (buffer.getByte(from + i) != DATA_FIELD[i]) {
+                return -1;
+            }
+        }
+        if (length == DATA_FIELD.length) {
+            return from + length;
+        }
+        return buffer.getByte(from + DATA_FIELD.length) == ':' ? from + DATA_FIELD.length + 1 : -1;
+    }
+
+    /**
+     * 同 {@link #dataValueStart(DataBuffer, int, int)}，用于 line 中的行
+     */
+    private static int dataValueStart(byte[] line, int length) {
+        if (length < DATA_FIELD.length || !Arrays.equals(line, 0, DATA_FIELD.length, DATA_FIELD, 0, DATA_FIELD.length)) {
+            return -1;
+        }
+        if (length == DATA_FIELD.length) {
+            return length;
+        }
+        return line[DATA_FIELD.length] == ':' ? DATA_FIELD.length + 1 : -1;
+    }
+
+    /**
+     * 把尚未复制的单行 data 复制到 data 数组
+     */
+    private void copySlice(DataBuffer buffer) {
+        if (sliceStart < 0) {
+            return;
+        }
+        ensureData(sliceEnd - sliceStart);
+        for (int i = sliceStart; i < sliceEnd; i++) {
+            data[dataLength++] = buffer.getByte(i);
+        }
+        sliceStart = -1;
+    }
+
+    private DataBuffer dispatch() {
+        if (!hasData) {
+            return null;
+        }
+        DataBuffer event = bufferFactory.allocateBuffer(dataLength);
+        event.write(data, 0, dataLength);
+        dataLength = 0;
+        hasData = false;
+        return event;
+    }
+
+    private void appendLine(DataBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        if (lineLength + length > MAX_EVENT_SIZE) {
+            throw new DataBufferLimitException("SSE line exceeds the limit of " + MAX_EVENT_SIZE + " bytes");
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, lineLength + length), MAX_EVENT_SIZE));
+        }
+        for (int i = from; i < to; i++) {
+            line[lineLength++] = buffer.getByte(i);
+        }
+    }
+
+    private void appendData(byte b) {
+        ensureData(1);
+        data[dataLength++] = b;
+    }
+
+    private void ensureData(int extra) {
+        if (dataLength + extra > MAX_EVENT_SIZE) {
+            throw new DataBufferLimitException("SSE event exceeds the limit of " + MAX_EVENT_SIZE + " bytes");
+        }
+        if (dataLength + extra > data.length) {
+            data = Arrays.copyOf(data, Math.min(Math.max(data.length * 2, dataLength + extra), MAX_EVENT_SIZE));
+        }
+    }
+}
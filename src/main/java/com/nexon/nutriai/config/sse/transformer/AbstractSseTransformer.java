@@ -1,41 +1,51 @@
 package com.nexon.nutriai.config.sse.transformer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nexon.nutriai.config.sse.SseCoalescer;
 import com.nexon.nutriai.config.sse.SseContext;
+import com.nexon.nutriai.config.sse.SseEventDecoder;
 import com.nexon.nutriai.config.sse.SseTransformer;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * 抽象 SSE 转换器，提供通用的辅助方法和“短路”优化逻辑。
+ * 转换路径通过 {@link com.nexon.nutriai.config.sse.SseBytes} 直接在字节上处理，只有窥视第一个 DataBuffer 时才解码成字符串。
+ * 解码出的事件内容先经过 {@link SseCoalescer} 合并再交给子类包装，窗口内的多个增量只包装成一个事件。
  */
 public abstract class AbstractSseTransformer implements SseTransformer {
 
-    @Override
-    public Flux<DataBuffer> transform(Flux<DataBuffer> originalFlux, SseContext context) {
-        // 【核心优化】缓存原始流，允许我们多次订阅（一次用于判断，一次用于处理）
-        Flux<DataBuffer> cachedFlux = originalFlux.cache();
+    private static final List<String> SSE_FIELDS = List.of("data:", ":", "event:", "id:", "retry:");
 
-        // 窥视第一个 DataBuffer 来判断格式
-        Mono<Boolean> isTargetFormatMono = cachedFlux.next()
-                .map(firstBuffer -> isAlreadyTargetFormat(dataBufferToString(firstBuffer), context))
-                .defaultIfEmpty(false); // 如果流为空，则不是目标格式
+    private final SseCoalescer coalescer;
 
-        // 根据判断结果，选择不同的处理路径
-        return isTargetFormatMono.flatMapMany(isTarget -> {
-            if (isTarget) {
-                // 如果已经是目标格式，直接透传缓存的原始流
-                // cachedFlux 中的所有 DataBuffer（包括第一个）都将被下游消费并正确释放
-                return cachedFlux;
-            } else {
-                // 如果不是目标格式，则执行转换逻辑
-                // doTransform 将消费 cachedFlux，并负责释放其中的 DataBuffer
-                return doTransform(cachedFlux, context);
+    protected AbstractSseTransformer(SseCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public Flux<DataBuffer> transform(Flux<DataBuffer> originalFlux, SseContext context) {
+        // 只窥视第一个 DataBuffer 来判断格式，之后直接切换为透传或转换，不缓存整条流，
+        // 每个连接额外占用的内存与响应长度无关
+        return originalFlux.switchOnFirst((first, flux) -> {
+            if (!first.hasValue()) {
+                // 流为空，执行转换逻辑（只输出结束事件）
+                return doTransform(flux, context);
+            }
+            String firstEvent = dataBufferToString(first.get());
+            if (isAlreadyTargetFormat(firstEvent, context)) {
+                // 如果已经是目标格式，直接透传，只合并完整的事件字节，所有 DataBuffer（包括第一个）由下游消费并释放
+                return coalescer.coalesce(flux, context.getBufferFactory());
             }
+            // 不是目标格式，执行转换逻辑，doTransform 负责释放其中的 DataBuffer。
+            // 上游是 SSE 时先解码为完整事件，与上游如何切分 DataBuffer 无关；否则每个 DataBuffer 作为一个事件的内容
+            Flux<DataBuffer> events = isEventStream(firstEvent)
+                    ? SseEventDecoder.decode(flux, context.getBufferFactory())
+                    : flux;
+            return doTransform(coalescer.coalesce(events, context.getBufferFactory()), context);
         });
     }
 
@@ -50,7 +60,7 @@ public abstract class AbstractSseTransformer implements SseTransformer {
     /**
      * 执行具体的转换逻辑。
      * 默认不处理，直接返回原始数据流。
-     * @param originalFlux 原始数据流
+     * @param originalFlux 事件内容流，每个 DataBuffer 是一个或多个相邻事件的 data 按顺序拼接的结果（多行用 \n 连接）
      * @param context      转换上下文
      * @return 转换后的数据流
      */
@@ -62,8 +72,23 @@ public abstract class AbstractSseTransformer implements SseTransformer {
     // --- 通用辅助方法 ---
 
     /**
-     * 【关键修改】将 DataBuffer 的内容转换为字符串，但不释放 DataBuffer。
-     * 这允许 DataBuffer 被 cache() 操作符重放，并由最终的消费者负责释放。
+     * 判断上游是否为 SSE：第一行是 data、event、id、retry 字段或注释。
+     * 第一个 DataBuffer 可能比字段名还短，此时只要它是某个字段名的开头就视为 SSE。
+     * @param firstEvent 第一个 DataBuffer 的字符串形式
+     * @return true 如果是 SSE
+     */
+    protected boolean isEventStream(String firstEvent) {
+        for (String field : SSE_FIELDS) {
+            if (firstEvent.startsWith(field) || field.startsWith(firstEvent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将 DataBuffer 的内容转换为字符串，但不释放 DataBuffer。
+     * 用于窥视第一个 DataBuffer，读取后恢复读位置，之后仍由下游消费并释放。
      * @param buffer 要读取的 DataBuffer
      * @return 字符串内容
      */
@@ -78,19 +103,17 @@ public abstract class AbstractSseTransformer implements SseTransformer {
         return new String(bytes, StandardCharsets.UTF_8);
     }
 
-    protected String sanitizeSsePayload(String rawPayload) {
-        if (StringUtils.isEmpty(rawPayload)) {
-            return "";
-        }
-        String content = rawPayload.trim();
-        if (content.endsWith("\n\n")) {
-            content = content.substring(0, content.length() - 2);
-        }
-        content = "\n" + content;
-        content = content.replaceAll("\ndata:", "\n");
-        if (content.startsWith("\n")) {
-            content = content.substring(1);
+    /**
+     * 将字符串序列化为带引号的 JSON 字符串，用于构建事件模板。
+     * @param context 转换上下文
+     * @param value   字符串
+     * @return JSON 字符串
+     */
+    protected String jsonString(SseContext context, String value) {
+        try {
+            return context.getObjectMapper().writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chunk", e);
         }
-        return content;
     }
 }
@@ -1,5 +1,7 @@
 package com.nexon.nutriai.config.sse.transformer;
 
+import com.nexon.nutriai.config.sse.SseBytes;
+import com.nexon.nutriai.config.sse.SseCoalescer;
 import com.nexon.nutriai.config.sse.SseContext;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
@@ -10,6 +12,13 @@ import java.nio.charset.StandardCharsets;
 @Component
 public class BasicSseTransformer extends AbstractSseTransformer {
 
+    private static final byte[] PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    public BasicSseTransformer(SseCoalescer coalescer) {
+        super(coalescer);
+    }
+
     @Override
     protected boolean isAlreadyTargetFormat(String firstEvent, SseContext context) {
         return firstEvent.startsWith("data:") && firstEvent.endsWith("\n\n");
@@ -18,12 +27,7 @@ public class BasicSseTransformer extends AbstractSseTransformer {
     @Override
     protected Flux<DataBuffer> doTransform(Flux<DataBuffer> originalFlux, SseContext context) {
         return originalFlux
-                .map(this::dataBufferToString)
-                .map(this::sanitizeSsePayload)
-                .map(json -> {
-                    String sseData = "data:" + json + "\n\n";
-                    return context.getBufferFactory().wrap(sseData.getBytes(StandardCharsets.UTF_8));
-                })
-                .concatWithValues(context.getBufferFactory().wrap("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8)));
+                .map(buffer -> SseBytes.frame(context.getBufferFactory(), PREFIX, buffer, SUFFIX, false))
+                .concatWithValues(context.getBufferFactory().wrap(SseBytes.DONE_FRAME));
     }
 }
@@ -1,18 +1,28 @@
 package com.nexon.nutriai.config.sse.transformer;
 
-import com.alibaba.fastjson2.JSONObject;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nexon.nutriai.config.sse.SseBytes;
+import com.nexon.nutriai.config.sse.SseCoalescer;
 import com.nexon.nutriai.config.sse.SseContext;
-import com.nexon.nutriai.pojo.response.NutriAiSseChunk;
+import com.nexon.nutriai.config.sse.SseEnvelope;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.nio.charset.StandardCharsets;
 
+/**
+ * 转换为 NutriAi 格式：{@code {"id":...,"object":"nutriai.chunk","created":...,"type":"message","payload":{"content":...}}}，
+ * 字段顺序与 {@link com.nexon.nutriai.pojo.response.NutriAiSseChunk} 序列化的结果一致。
+ */
 @Component
 public class NutriAiSseTransformer extends AbstractSseTransformer {
 
+    private static final byte[] SUFFIX = "\"}}\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    public NutriAiSseTransformer(SseCoalescer coalescer) {
+        super(coalescer);
+    }
+
     @Override
     protected boolean isAlreadyTargetFormat(String firstEvent, SseContext context) {
         // 判断是否包含 OpenAI 特有的 "object" 字段
@@ -22,22 +32,12 @@ public class NutriAiSseTransformer extends AbstractSseTransformer {
 
     @Override
     protected Flux<DataBuffer> doTransform(Flux<DataBuffer> originalFlux, SseContext context) {
+        SseEnvelope envelope = new SseEnvelope(
+                "data:{\"id\":" + jsonString(context, context.getChatId()) + ",\"object\":\"nutriai.chunk\",\"created\":",
+                ",\"type\":\"message\",\"payload\":{\"content\":\"",
+                SUFFIX);
         return originalFlux
-                .map(this::dataBufferToString)
-                .map(this::sanitizeSsePayload)
-                .map(json -> {
-                    NutriAiSseChunk chunk = new NutriAiSseChunk(
-                            context.getChatId(), "nutriai.chunk", System.currentTimeMillis() / 1000,
-                            "message", new NutriAiSseChunk.Message(json)
-                    );
-                    try {
-                        String sseData = "data:" + context.getObjectMapper().writeValueAsString(chunk) + "\n\n";
-                        return context.getBufferFactory().wrap(sseData.getBytes(StandardCharsets.UTF_8));
-                    } catch (JsonProcessingException e) {
-                        String errorData = "data:{\"error\": \"Failed to serialize chunk\"}\n\n";
-                        return context.getBufferFactory().wrap(errorData.getBytes(StandardCharsets.UTF_8));
-                    }
-                })
-                .concatWithValues(context.getBufferFactory().wrap("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8)));
+                .map(buffer -> envelope.frame(context.getBufferFactory(), buffer))
+                .concatWithValues(context.getBufferFactory().wrap(SseBytes.DONE_FRAME));
     }
 }
@@ -1,18 +1,27 @@
 package com.nexon.nutriai.config.sse.transformer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nexon.nutriai.config.sse.SseBytes;
+import com.nexon.nutriai.config.sse.SseCoalescer;
 import com.nexon.nutriai.config.sse.SseContext;
-import com.nexon.nutriai.pojo.response.OpenAiSseChunk;
+import com.nexon.nutriai.config.sse.SseEnvelope;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 
+/**
+ * 转换为 OpenAI chat.completion.chunk 格式，字段顺序与 {@link com.nexon.nutriai.pojo.response.OpenAiSseChunk} 序列化的结果一致。
+ */
 @Component
 public class OpenAiSseTransformer extends AbstractSseTransformer {
 
+    private static final byte[] SUFFIX = "\"},\"finish_reason\":null}]}\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    public OpenAiSseTransformer(SseCoalescer coalescer) {
+        super(coalescer);
+    }
+
     @Override
     protected boolean isAlreadyTargetFormat(String firstEvent, SseContext context) {
         // 判断是否包含 OpenAI 特有的 "object" 字段
@@ -22,22 +31,12 @@ public class OpenAiSseTransformer extends AbstractSseTransformer {
 
     @Override
     protected Flux<DataBuffer> doTransform(Flux<DataBuffer> originalFlux, SseContext context) {
+        SseEnvelope envelope = new SseEnvelope(
+                "data:{\"id\":" + jsonString(context, context.getChatId()) + ",\"object\":\"chat.completion.chunk\",\"created\":",
+                ",\"model\":" + jsonString(context, context.getModel()) + ",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"",
+                SUFFIX);
         return originalFlux
-                .map(this::dataBufferToString)
-                .map(this::sanitizeSsePayload)
-                .map(json -> {
-                    OpenAiSseChunk chunk = new OpenAiSseChunk(
-                            context.getChatId(), "chat.completion.chunk", System.currentTimeMillis() / 1000,
-                            context.getModel(), List.of(new OpenAiSseChunk.Choice(0, new OpenAiSseChunk.Delta(json), null))
-                    );
-                    try {
-                        String sseData = "data:" + context.getObjectMapper().writeValueAsString(chunk) + "\n\n";
-                        return context.getBufferFactory().wrap(sseData.getBytes(StandardCharsets.UTF_8));
-                    } catch (JsonProcessingException e) {
-                        String errorData = "data:{\"error\": \"Failed to serialize chunk\"}\n\n";
-                        return context.getBufferFactory().wrap(errorData.getBytes(StandardCharsets.UTF_8));
-                    }
-                })
-                .concatWithValues(context.getBufferFactory().wrap("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8)));
+                .map(buffer -> envelope.frame(context.getBufferFactory(), buffer))
+                .concatWithValues(context.getBufferFactory().wrap(SseBytes.DONE_FRAME));
     }
 }
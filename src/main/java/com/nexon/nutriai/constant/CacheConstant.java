@@ -0,0 +1,17 @@
+package com.nexon.nutriai.constant;
+
+/**
+ * 缓存区域名称
+ */
+public class CacheConstant {
+
+    public static final String USER_INFO = "user-info";
+
+    public static final String OPEN_ID = "open-id";
+
+    public static final String JWT_VERIFICATION = "jwt-verification";
+
+    public static final String VISION_RESULTS = "vision-results";
+
+    public static final String DIALOGUE_SEQUENCE = "dialogue-sequence";
+}
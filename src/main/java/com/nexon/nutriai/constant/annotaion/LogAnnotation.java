@@ -1,5 +1,7 @@
 package com.nexon.nutriai.constant.annotaion;
 
+import com.nexon.nutriai.ai.common.AiAPI;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -14,6 +16,23 @@ public @interface LogAnnotation {
     // 添加请求类型枚举
     RequestType requestType() default RequestType.NORMAL;
 
+    // 生成流式响应的模型接口，设置后按该接口的 getModel() 统计首片段耗时和吞吐量；默认 AiAPI.class 表示不统计
+    Class<? extends AiAPI> model() default AiAPI.class;
+
+    // 以下策略只作用于普通请求（NORMAL）
+
+    // 成功请求的采样率，0~1，未被采样的请求不转换参数和返回值、不写日志
+    double successSampleRate() default 1.0;
+
+    // 失败请求是否总是记录，为 false 时失败请求同样按采样率记录
+    boolean alwaysLogErrors() default true;
+
+    // 参数和返回值转换为字符串后的最大长度，超出部分截断，-1 表示不限制
+    int maxFieldLength() default -1;
+
+    // 需要脱敏的参数下标（从0开始），日志中以 *** 代替
+    int[] redactArgs() default {};
+
     enum RequestType {
         NORMAL,     // 普通请求
         DIALOGUE,   // 对话请求
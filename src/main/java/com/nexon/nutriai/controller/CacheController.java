@@ -0,0 +1,40 @@
+package com.nexon.nutriai.controller;
+
+import com.nexon.nutriai.pojo.response.CacheStatsRes;
+import com.nexon.nutriai.util.cache.CacheManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 缓存监控控制器
+ * 
+ * 提供各缓存区域的命中、加载、淘汰等统计信息，用于根据线上数据调整缓存容量和过期时间。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/web/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * 查询所有缓存区域的统计信息
+     * 
+     * @return 各区域统计信息，按区域名称排序
+     */
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<List<CacheStatsRes>>> queryCacheStats() {
+        List<CacheStatsRes> stats = cacheManager.stats().entrySet().stream()
+                .map(entry -> CacheStatsRes.of(entry.getKey(), cacheManager.size(entry.getKey()), entry.getValue()))
+                .toList();
+        return Mono.just(ResponseEntity.ok(stats));
+    }
+}
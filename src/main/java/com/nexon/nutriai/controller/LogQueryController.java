@@ -2,7 +2,13 @@ package com.nexon.nutriai.controller;
 
 import com.nexon.nutriai.dao.entity.DialogueDetail;
 import com.nexon.nutriai.dao.entity.DialogueSession;
+import com.nexon.nutriai.pojo.response.LatencyStatsRes;
+import com.nexon.nutriai.pojo.response.StreamStatsRes;
 import com.nexon.nutriai.service.LogQueryService;
+import com.nexon.nutriai.service.log.LatencyMetrics;
+import com.nexon.nutriai.service.log.LogBatchWriter;
+import com.nexon.nutriai.service.log.LogSideEffectExecutor;
+import com.nexon.nutriai.service.log.StreamMetrics;
 import com.nexon.nutriai.util.WebFluxUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,6 +37,10 @@ import java.util.List;
 public class LogQueryController {
 
     private final LogQueryService logQueryService;
+    private final LogBatchWriter logBatchWriter;
+    private final LatencyMetrics latencyMetrics;
+    private final StreamMetrics streamMetrics;
+    private final LogSideEffectExecutor logSideEffectExecutor;
 
     /**
      * 分页查询当前用户的对话记录
@@ -106,6 +117,52 @@ public class LogQueryController {
         return Mono.just(ResponseEntity.ok(details));
     }
 
+    /**
+     * 查询日志批量写入器的队列深度、丢弃数等统计
+     * 
+     * @return 写入统计
+     */
+    @GetMapping("/writer/stats")
+    public Mono<ResponseEntity<LogBatchWriter.Stats>> queryLogWriterStats() {
+        return Mono.just(ResponseEntity.ok(logBatchWriter.stats()));
+    }
+
+    /**
+     * 查询日志切面副作用执行器的并发数、拒绝数等统计
+     * 
+     * @return 执行统计
+     */
+    @GetMapping("/side-effects/stats")
+    public Mono<ResponseEntity<LogSideEffectExecutor.Stats>> queryLogSideEffectStats() {
+        return Mono.just(ResponseEntity.ok(logSideEffectExecutor.stats()));
+    }
+
+    /**
+     * 查询各个日志方法在最近窗口内的延迟分位数
+     * 
+     * @return 延迟统计，按方法名和窗口排列
+     */
+    @GetMapping("/latency")
+    public Mono<ResponseEntity<List<LatencyStatsRes>>> queryLatencyStats() {
+        List<LatencyStatsRes> stats = new ArrayList<>();
+        latencyMetrics.snapshot().forEach((method, byWindow) ->
+                byWindow.forEach((window, snapshot) -> stats.add(LatencyStatsRes.of(method, window, snapshot))));
+        return Mono.just(ResponseEntity.ok(stats));
+    }
+
+    /**
+     * 查询各个模型流式响应的首片段耗时、片段间隔和吞吐量
+     * 
+     * @return 流式响应统计，按模型和窗口排列
+     */
+    @GetMapping("/streams")
+    public Mono<ResponseEntity<List<StreamStatsRes>>> queryStreamStats() {
+        List<StreamStatsRes> stats = new ArrayList<>();
+        streamMetrics.snapshot().forEach((model, byWindow) ->
+                byWindow.forEach((window, snapshot) -> stats.add(StreamStatsRes.of(model, window, snapshot))));
+        return Mono.just(ResponseEntity.ok(stats));
+    }
+
     /**
      * 根据会话ID查询对话记录
      * 
@@ -2,6 +2,7 @@ package com.nexon.nutriai.controller;
 
 import com.nexon.nutriai.constant.ErrorCode;
 import com.nexon.nutriai.pojo.dto.UserHealthGoalDTO;
+import com.nexon.nutriai.pojo.dto.UserInformationDTO;
 import com.nexon.nutriai.pojo.response.BaseResponse;
 import com.nexon.nutriai.pojo.UserInfo;
 import com.nexon.nutriai.pojo.dto.UserProfileDTO;
@@ -131,9 +132,11 @@ public class UserController {
      * @return
      */
     @GetMapping("/getUserProfile")
-    public BaseResponse<UserProfile> getUserProfile(@RequestParam String phone) {
-        UserProfile userProfile = userService.getUserProfile(phone);
-        return new BaseResponse<>(userProfile);
+    public Mono<BaseResponse<UserProfile>> getUserProfile(@RequestParam String phone) {
+        return userService.getUserInformationReactive(phone)
+                .mapNotNull(UserInformationDTO::userProfile)
+                .map(BaseResponse::new)
+                .defaultIfEmpty(new BaseResponse<>((UserProfile) null));
     }
 
     /**
@@ -142,9 +145,11 @@ public class UserController {
      * @return
      */
     @GetMapping("/getUserHealthGoal")
-    public BaseResponse<UserHealthGoal> getUserHealthGoal(@RequestParam String phone) {
-        UserHealthGoal userHealthGoal = userService.getUserHealthGoal(phone);
-        return new BaseResponse<>(userHealthGoal);
+    public Mono<BaseResponse<UserHealthGoal>> getUserHealthGoal(@RequestParam String phone) {
+        return userService.getUserInformationReactive(phone)
+                .mapNotNull(UserInformationDTO::userHealthGoal)
+                .map(BaseResponse::new)
+                .defaultIfEmpty(new BaseResponse<>((UserHealthGoal) null));
     }
 
     // OAuth 2.0 鉴权
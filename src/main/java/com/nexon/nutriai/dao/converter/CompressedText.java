@@ -0,0 +1,75 @@
+package com.nexon.nutriai.dao.converter;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Objects;
+
+/**
+ * 按需解压的日志文本
+ *
+ * 实体从数据库读出时只保存存储格式，第一次访问 {@link #text()} 时才解压，
+ * 分页查询中没有被序列化或读取的字段不会产生解压开销。
+ */
+public final class CompressedText {
+
+    private final String stored;
+    private String text;
+
+    private CompressedText(String stored) {
+        this.stored = stored;
+    }
+
+    /**
+     * 由原文创建，按存储格式压缩
+     *
+     * @param text 原文
+     * @return 文本，原文为 null 时返回 null
+     */
+    public static CompressedText of(String text) {
+        return text == null ? null : new CompressedText(TextCompression.encode(text));
+    }
+
+    /**
+     * 由数据库中的存储格式创建，不解压
+     */
+    static CompressedText ofStored(String stored) {
+        return stored == null ? null : new CompressedText(stored);
+    }
+
+    /**
+     * 数据库中的存储格式
+     */
+    String stored() {
+        return stored;
+    }
+
+    /**
+     * 获取原文，结果会被缓存
+     *
+     * @return 原文
+     */
+    @JsonValue
+    public String text() {
+        String result = text;
+        if (result == null) {
+            result = TextCompression.decode(stored);
+            text = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof CompressedText other && stored.equals(other.stored);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(stored);
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
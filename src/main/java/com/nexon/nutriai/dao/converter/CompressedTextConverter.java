@@ -0,0 +1,21 @@
+package com.nexon.nutriai.dao.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * {@link CompressedText} 与文本列之间的转换，读写都不做解压
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<CompressedText, String> {
+
+    @Override
+    public String convertToDatabaseColumn(CompressedText attribute) {
+        return attribute == null ? null : attribute.stored();
+    }
+
+    @Override
+    public CompressedText convertToEntityAttribute(String dbData) {
+        return CompressedText.ofStored(dbData);
+    }
+}
@@ -0,0 +1,166 @@
+package com.nexon.nutriai.dao.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 日志长文本的压缩存储格式
+ *
+ * 文本以 UTF-8 编码后用 deflate 压缩，压缩时预置一份由常见营养分析回答整理出的字典，
+ * 短文本也能引用字典中的高频词。压缩结果经 Base64 编码后加上前缀存入原有的文本列，
+ * 不需要修改表结构，旧数据（没有前缀）原样读出。
+ *
+ * 存储格式："\u0001D1:" + Base64(deflate(UTF-8 文本, 字典 v1))。
+ * 字典内容一旦使用就不能修改，调整字典需要新增版本前缀。
+ */
+public final class TextCompression {
+
+    static final String PREFIX = "\u0001D1:";
+
+    /**
+     * 短于该长度的文本压缩收益不大，直接保存原文
+     */
+    private static final int MIN_COMPRESS_BYTES = 96;
+
+    /**
+     * deflate 只引用字典最后 32KB，越常见的片段越靠后
+     */
+    private static final byte[] DICTIONARY = """
+            kcal mg g ml % | --- | 1. 2. 3. 4. 5.
+            维生素A 维生素B1 维生素B2 维生素B6 维生素B12 维生素C 维生素D 维生素E 维生素K 叶酸 胆固醇 \
+            钙 铁 锌 镁 钾 钠 硒 磷 嘌呤 血糖生成指数 GI 升糖 饱和脂肪 反式脂肪 不饱和脂肪 Omega-3 \
+            早餐 午餐 晚餐 加餐 零食 水果 蔬菜 全谷物 粗粮 杂粮 米饭 面条 馒头 燕麦 鸡蛋 牛奶 酸奶 豆制品 豆腐 \
+            鸡胸肉 牛肉 猪肉 鱼虾 坚果 橄榄油 食用油 盐 糖 添加糖 含糖饮料 油炸食品 加工食品 \
+            减脂 增肌 体重 BMI 体脂率 基础代谢 运动 有氧运动 力量训练 睡眠 饮水 \
+            高血压 糖尿病 高血脂 痛风 肥胖 心血管 肠道健康 消化 免疫力 饱腹感 \
+            每日推荐摄入量 推荐摄入 摄入量 适量 过量 不足 偏高 偏低 控制 减少 增加 避免 选择 搭配 替换 \
+            每100克 每份 约 克 毫克 千卡 大卡 热量 能量 \
+            ## 营养成分分析
+            ## 健康建议
+            ## 饮食建议
+            ## 总结
+            ### 主要营养成分
+            ### 注意事项
+            | 营养素 | 含量 | 占每日推荐摄入量 |
+            - **热量**：
+            - **蛋白质**：
+            - **碳水化合物**：
+            - **脂肪**：
+            - **膳食纤维**：
+            建议您在日常饮食中注意营养均衡，保持适量运动。
+            如有特殊健康状况，请咨询医生或专业营养师。
+            根据您提供的信息，这份食物的营养成分如下：
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private TextCompression() {
+    }
+
+    /**
+     * 创建预置了字典的压缩器，用完后调用方负责 {@link Deflater#end()}
+     *
+     * @param level 压缩级别
+     * @return 压缩器
+     */
+    public static Deflater newDeflater(int level) {
+        Deflater deflater = new Deflater(level);
+        deflater.setDictionary(DICTIONARY);
+        return deflater;
+    }
+
+    /**
+     * 编码为存储格式，短文本保持原文
+     *
+     * @param text 文本
+     * @return 存储的字符串
+     */
+    public static String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        // 以前缀字符开头的原文必须压缩，否则读出时会被误认为压缩数据
+        if (bytes.length < MIN_COMPRESS_BYTES && !text.startsWith("\u0001")) {
+            return text;
+        }
+        Deflater deflater = newDeflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            String encoded = wrap(out.toByteArray());
+            return encoded.length() < bytes.length || text.startsWith("\u0001") ? encoded : text;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 把已用 {@link #newDeflater(int)} 压缩好的数据包装为存储格式
+     *
+     * @param deflated 压缩数据
+     * @return 存储的字符串
+     */
+    public static String wrap(byte[] deflated) {
+        return PREFIX + Base64.getEncoder().encodeToString(deflated);
+    }
+
+    /**
+     * 判断是否为压缩格式
+     */
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * 从存储格式还原文本，不是压缩格式时原样返回
+     *
+     * @param stored 存储的字符串
+     * @return 文本
+     */
+    public static String decode(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+        byte[] deflated = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        return new String(inflate(deflated), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 解压 {@link #newDeflater(int)} 压缩的数据
+     *
+     * @param deflated 压缩数据
+     * @return 原始字节
+     */
+    public static byte[] inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalArgumentException("truncated compressed text");
+                    }
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("corrupted compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.nexon.nutriai.dao.entity;
 
+import com.nexon.nutriai.dao.converter.CompressedText;
+import com.nexon.nutriai.dao.converter.CompressedTextConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -30,8 +32,9 @@ public class DialogueDetail {
     @Column(name = "message_type", nullable = false)
     private Integer messageType; // 1-用户消息，2-AI回复
 
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "content", nullable = false, columnDefinition = "LONGTEXT")
-    private String content;
+    private CompressedText content;
 
     @Column(name = "sequence", nullable = false)
     private Integer sequence;
@@ -0,0 +1,26 @@
+package com.nexon.nutriai.dao.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 日志 journal 已导入数据库的偏移量，与同一批日志在一个事务内更新
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "log_journal_checkpoint")
+public class LogJournalCheckpoint {
+
+    @Id
+    @Column(name = "journal_id", length = 36)
+    private String journalId;
+
+    @Column(name = "journal_offset", nullable = false)
+    private Long journalOffset;
+}
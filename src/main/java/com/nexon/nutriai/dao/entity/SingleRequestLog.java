@@ -1,5 +1,7 @@
 package com.nexon.nutriai.dao.entity;
 
+import com.nexon.nutriai.dao.converter.CompressedText;
+import com.nexon.nutriai.dao.converter.CompressedTextConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,11 +25,13 @@ public class SingleRequestLog {
     @Column(name = "method_name", nullable = false, length = 255)
     private String methodName;
 
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "request_params", columnDefinition = "TEXT")
-    private String requestParams;
+    private CompressedText requestParams;
 
+    @Convert(converter = CompressedTextConverter.class)
     @Column(name = "response_data", columnDefinition = "LONGTEXT")
-    private String responseData;
+    private CompressedText responseData;
 
     @Column(name = "success", nullable = false)
     private Integer success = 1;
@@ -0,0 +1,142 @@
+package com.nexon.nutriai.dao.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 日志批量写入
+ *
+ * 直接使用 JDBC 批量插入 login_log、single_request_log、dialogue_session 和 dialogue_detail，
+ * 一批日志只占用一个事务和一次批量提交，不经过 JPA 的持久化上下文。
+ * 同一个事务内更新 log_journal_checkpoint，记录 journal 已导入的偏移量，重放时据此跳过已提交的记录。
+ * 请求参数、响应内容和对话内容由调用方按 {@link com.nexon.nutriai.dao.converter.TextCompression} 的存储格式传入。
+ */
+@Repository
+@RequiredArgsConstructor
+public class LogBatchRepository {
+
+    private static final String INSERT_LOGIN_LOG =
+            "INSERT INTO login_log (username, status, failure_reason, login_type, login_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_SINGLE_REQUEST_LOG =
+            "INSERT INTO single_request_log (method_name, request_params, response_data, success, error_message, execute_time, create_time) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DIALOGUE_SESSION =
+            "INSERT INTO dialogue_session (session_id, phone, title, method_name, start_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_DIALOGUE_DETAIL =
+            "INSERT INTO dialogue_detail (session_id, message_type, content, sequence, create_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_JOURNAL_CHECKPOINT =
+            "UPDATE log_journal_checkpoint SET journal_offset = ? WHERE journal_id = ?";
+    private static final String INSERT_JOURNAL_CHECKPOINT =
+            "INSERT INTO log_journal_checkpoint (journal_id, journal_offset) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LoginLogRow(String username, int status, String failureReason, String loginType,
+                              LocalDateTime loginTime) {
+    }
+
+    public record SingleRequestLogRow(String methodName, String requestParams, String responseData, int success,
+                                      String errorMessage, int executeTime, LocalDateTime createTime) {
+    }
+
+    public record DialogueSessionRow(String sessionId, String phone, String title, String methodName,
+                                     LocalDateTime startTime) {
+    }
+
+    public record DialogueDetailRow(String sessionId, int messageType, String content, int sequence,
+                                    LocalDateTime createTime) {
+    }
+
+    public void batchInsertLoginLogs(List<LoginLogRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_LOGIN_LOG, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.username());
+            ps.setInt(2, row.status());
+            ps.setString(3, row.failureReason());
+            ps.setString(4, row.loginType());
+            ps.setTimestamp(5, Timestamp.valueOf(row.loginTime()));
+        });
+    }
+
+    public void batchInsertSingleRequestLogs(List<SingleRequestLogRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SINGLE_REQUEST_LOG, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.methodName());
+            ps.setString(2, row.requestParams());
+            ps.setString(3, row.responseData());
+            ps.setInt(4, row.success());
+            ps.setString(5, row.errorMessage());
+            ps.setInt(6, row.executeTime());
+            ps.setTimestamp(7, Timestamp.valueOf(row.createTime()));
+        });
+    }
+
+    public void batchInsertDialogueSessions(List<DialogueSessionRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_DIALOGUE_SESSION, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.sessionId());
+            ps.setString(2, row.phone());
+            ps.setString(3, row.title());
+            ps.setString(4, row.methodName());
+            ps.setTimestamp(5, Timestamp.valueOf(row.startTime()));
+        });
+    }
+
+    public void batchInsertDialogueDetails(List<DialogueDetailRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_DIALOGUE_DETAIL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.sessionId());
+            ps.setInt(2, row.messageType());
+            ps.setString(3, row.content());
+            ps.setInt(4, row.sequence());
+            ps.setTimestamp(5, Timestamp.valueOf(row.createTime()));
+        });
+    }
+
+    /**
+     * 查询会话是否已存在
+     */
+    public boolean existsDialogueSession(String sessionId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM dialogue_session WHERE session_id = ?", Integer.class, sessionId);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 补全早期会话缺失的方法名
+     */
+    public void fillMissingMethodName(String sessionId, String methodName) {
+        jdbcTemplate.update("UPDATE dialogue_session SET method_name = ? WHERE session_id = ? AND method_name IS NULL",
+                methodName, sessionId);
+    }
+
+    /**
+     * 查询会话当前最大序列号，走 (session_id, sequence) 索引
+     */
+    public int findMaxSequence(String sessionId) {
+        Integer max = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(sequence), 0) FROM dialogue_detail WHERE session_id = ?", Integer.class, sessionId);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * 保存 journal 已导入的偏移量，需要与对应的日志在同一个事务内调用
+     */
+    public void saveJournalCheckpoint(String journalId, long offset) {
+        if (jdbcTemplate.update(UPDATE_JOURNAL_CHECKPOINT, offset, journalId) == 0) {
+            jdbcTemplate.update(INSERT_JOURNAL_CHECKPOINT, journalId, offset);
+        }
+    }
+
+    /**
+     * 查询 journal 已导入的偏移量
+     *
+     * @return 偏移量，没有记录时返回 -1
+     */
+    public long findJournalCheckpoint(String journalId) {
+        List<Long> offsets = jdbcTemplate.queryForList(
+                "SELECT journal_offset FROM log_journal_checkpoint WHERE journal_id = ?", Long.class, journalId);
+        return offsets.isEmpty() ? -1 : offsets.getFirst();
+    }
+}
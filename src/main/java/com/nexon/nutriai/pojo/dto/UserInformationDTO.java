@@ -4,8 +4,28 @@ import com.nexon.nutriai.dao.entity.AppUser;
 import com.nexon.nutriai.dao.entity.UserHealthGoal;
 import com.nexon.nutriai.dao.entity.UserProfile;
 
+/**
+ * 用户信息缓存条目
+ *
+ * 只保留 AppUser 的手机号和用户名，密码哈希和 openId 不进入缓存，也就不会随快照写入磁盘；
+ * 校验密码和 openId 时直接查询数据库。
+ */
 public record UserInformationDTO(AppUser appUser, UserProfile userProfile, UserHealthGoal userHealthGoal) {
 
+    public UserInformationDTO {
+        appUser = withoutCredentials(appUser);
+    }
+
+    private static AppUser withoutCredentials(AppUser appUser) {
+        if (appUser == null || appUser.getPassword() == null && appUser.getOpenId() == null) {
+            return appUser;
+        }
+        AppUser copy = new AppUser();
+        copy.setPhone(appUser.getPhone());
+        copy.setUsername(appUser.getUsername());
+        return copy;
+    }
+
     public String buildUserInformation() {
         StringBuilder sb = new StringBuilder();
         sb.append("用户信息：")
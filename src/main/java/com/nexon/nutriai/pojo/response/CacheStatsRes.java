@@ -0,0 +1,21 @@
+package com.nexon.nutriai.pojo.response;
+
+import com.nexon.nutriai.util.cache.CacheStats;
+
+/**
+ * 缓存区域统计
+ *
+ * @param averageLoadPenaltyMillis 平均加载耗时（毫秒）
+ */
+public record CacheStatsRes(String name, int size,
+                            long hitCount, long missCount, double hitRate,
+                            long loadSuccessCount, long loadFailureCount, double averageLoadPenaltyMillis,
+                            long evictionCount, long expiryCount, long pressureEvictionCount) {
+
+    public static CacheStatsRes of(String name, int size, CacheStats stats) {
+        return new CacheStatsRes(name, size,
+                stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.loadSuccessCount(), stats.loadFailureCount(), stats.averageLoadPenalty() / 1_000_000,
+                stats.evictionCount(), stats.expiryCount(), stats.pressureEvictionCount());
+    }
+}
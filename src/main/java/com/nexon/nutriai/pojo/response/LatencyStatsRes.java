@@ -0,0 +1,23 @@
+package com.nexon.nutriai.pojo.response;
+
+import com.nexon.nutriai.service.log.LatencyHistogram;
+
+import java.time.Duration;
+
+/**
+ * 方法延迟统计，耗时单位为毫秒
+ *
+ * @param method 完整方法名
+ * @param window 统计窗口，如 PT1M
+ * @param count 窗口内的调用次数
+ */
+public record LatencyStatsRes(String method, String window, long count,
+                              double p50Millis, double p90Millis, double p99Millis, double p999Millis,
+                              double maxMillis) {
+
+    public static LatencyStatsRes of(String method, Duration window, LatencyHistogram.Snapshot snapshot) {
+        return new LatencyStatsRes(method, window.toString(), snapshot.count(),
+                snapshot.p50() / 1000.0, snapshot.p90() / 1000.0, snapshot.p99() / 1000.0, snapshot.p999() / 1000.0,
+                snapshot.max() / 1000.0);
+    }
+}
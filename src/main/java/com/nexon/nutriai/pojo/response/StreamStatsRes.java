@@ -0,0 +1,32 @@
+package com.nexon.nutriai.pojo.response;
+
+import com.nexon.nutriai.service.log.StreamMetrics;
+
+import java.time.Duration;
+
+/**
+ * 流式 AI 响应统计，耗时单位为毫秒
+ *
+ * 首片段耗时和片段间隔为 window 窗口内的分位数；streams、平均片段数和吞吐量为启动以来的累计值。
+ *
+ * @param window 统计窗口，如 PT1M
+ * @param chunksPerSecond 首片段到末片段之间平均每秒输出的片段数
+ * @param charsPerSecond 首片段到末片段之间平均每秒输出的字符数
+ */
+public record StreamStatsRes(String model, String window,
+                             long windowStreams, double ttftP50Millis, double ttftP90Millis, double ttftP99Millis,
+                             double gapP50Millis, double gapP90Millis, double gapP99Millis, double gapP999Millis,
+                             long streams, double averageChunks, double chunksPerSecond, double charsPerSecond) {
+
+    public static StreamStatsRes of(String model, Duration window, StreamMetrics.Snapshot snapshot) {
+        double streamingSeconds = snapshot.streamingNanos() / 1e9;
+        return new StreamStatsRes(model, window.toString(),
+                snapshot.timeToFirstChunk().count(), snapshot.timeToFirstChunk().p50() / 1000.0,
+                snapshot.timeToFirstChunk().p90() / 1000.0, snapshot.timeToFirstChunk().p99() / 1000.0,
+                snapshot.chunkGap().p50() / 1000.0, snapshot.chunkGap().p90() / 1000.0,
+                snapshot.chunkGap().p99() / 1000.0, snapshot.chunkGap().p999() / 1000.0,
+                snapshot.streams(), snapshot.streams() == 0 ? 0 : (double) snapshot.chunks() / snapshot.streams(),
+                streamingSeconds == 0 ? 0 : snapshot.chunks() / streamingSeconds,
+                streamingSeconds == 0 ? 0 : snapshot.chars() / streamingSeconds);
+    }
+}
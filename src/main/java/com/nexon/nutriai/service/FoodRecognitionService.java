@@ -16,13 +16,21 @@ import com.nexon.nutriai.dao.repository.EatingLogRepository;
 import com.nexon.nutriai.dao.entity.EatingLog;
 import com.nexon.nutriai.tools.UserTools;
 import com.nexon.nutriai.util.DateUtils;
+import com.nexon.nutriai.util.cache.Cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -41,19 +49,22 @@ public class FoodRecognitionService {
     private final TextAPI textAPI;
     private final EatingLogRepository eatingLogRepository;
     private final UserTools userTools;
+    private final Cache<String, FoodIdentification> visionResultCache;
 
     /**
      * 识别食物图片并保存识别记录
      * 
      * 该方法使用视觉API分析上传的食物图片，识别其中的食物及其相关信息。
      * 识别结果会被保存到饮食日志中。
+     * 相同内容的图片直接复用缓存的识别结果，不再重复调用视觉API。
      * 
      * @param filePath 图片文件路径
      * @param request 基础请求对象，包含用户信息
      * @return 食物识别结果
      */
     @Transactional
-    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.NORMAL)
+    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.NORMAL,
+            successSampleRate = 0.1, maxFieldLength = 2048, redactArgs = 0)
     public FoodIdentificationRes recognize(String filePath, BaseRequest request) {
         AiVisionRequest aiVisionRequest = new AiVisionRequest(request);
         aiVisionRequest.add(filePath);
@@ -61,7 +72,14 @@ public class FoodRecognitionService {
         aiVisionRequest.setSystemPrompt(PromptConstant.IMAGE_IDENTIFY_SYSTEM_PROMPT);
 
         // 调用视觉API识别食物
-        FoodIdentification identification = visionAPI.imageAnalyze(aiVisionRequest, FoodIdentification.class);
+        String digest = digestOf(filePath);
+        FoodIdentification identification = digest == null ? null : visionResultCache.get(digest);
+        if (identification == null) {
+            identification = visionAPI.imageAnalyze(aiVisionRequest, FoodIdentification.class);
+            if (identification != null && digest != null) {
+                visionResultCache.put(digest, identification);
+            }
+        }
         if (identification != null) {
             EatingLog eatingLog = new EatingLog();
             eatingLog.setPhone(request.getPhone());
@@ -83,7 +101,8 @@ public class FoodRecognitionService {
      * @return 流式的营养分析报告内容
      */
     @TrackSubscription(value = "nutritionReport", streamIdParamName = "chatId")
-    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.NORMAL)
+    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.NORMAL,
+            successSampleRate = 0.1, maxFieldLength = 2048, model = TextAPI.class)
     public Flux<String> nutritionReport(FoodIdentification identification, BaseRequest request) {
         // 获取模板参数
         Map<String, Object> templateParams = identification.toTemplateParameters();
@@ -102,6 +121,24 @@ public class FoodRecognitionService {
         return textAPI.textAnalysis4Stream(baseAiRequest, List.of(userAiTool));
     }
 
+    /**
+     * 计算图片内容的 SHA-256 摘要，读取失败时返回 null（不使用缓存）
+     */
+    private String digestOf(String filePath) {
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("计算图片摘要失败: {}", filePath, e);
+            return null;
+        }
+    }
+
     /**
      * 获取文本模型名称
      * 
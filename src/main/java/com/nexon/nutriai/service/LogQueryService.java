@@ -19,6 +19,7 @@ import java.util.Optional;
  * 
  * 提供对话记录和详情的查询功能，支持按用户、对话类型等条件进行查询。
  * 针对大数据量场景进行了优化处理。
+ * 对话内容以压缩格式存储，查询结果中的 {@link com.nexon.nutriai.dao.converter.CompressedText} 在序列化或读取时才解压。
  */
 @Service
 @RequiredArgsConstructor
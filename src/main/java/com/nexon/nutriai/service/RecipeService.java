@@ -36,7 +36,7 @@ public class RecipeService {
     }
 
     @TrackSubscription(value = "recommend", streamIdParamName = "chatId")
-    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.DIALOGUE)
+    @LogAnnotation(value = "recognize", requestType = LogAnnotation.RequestType.DIALOGUE, model = ChatAPI.class)
     public Flux<String> recommendRecipe(BaseRequest request, String question) {
         BaseAiRequest baseAiRequest = new BaseAiRequest(request);
         baseAiRequest.setSystemPrompt(PromptConstant.RECOMMEND_RECIPE_SYSTEM_PROMPT);
@@ -20,10 +20,12 @@ import com.nexon.nutriai.dao.entity.UserProfileLog;
 import com.nexon.nutriai.util.PasswordUtil;
 import com.nexon.nutriai.util.UUIDUtil;
 import com.nexon.nutriai.util.cache.Cache;
+import com.nexon.nutriai.util.cache.ReactiveCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import java.util.Date;
 import java.util.Optional;
@@ -40,8 +42,9 @@ public class UserService {
     private final UserHealthGoalLogRepository userHealthGoalLogRepository;
 
     private final Cache<String, UserInformationDTO> userCache;
+    private final ReactiveCache<String, UserInformationDTO> userReactiveCache;
 
-    @LogAnnotation(value = "signUp", requestType = LogAnnotation.RequestType.NORMAL)
+    @LogAnnotation(value = "signUp", requestType = LogAnnotation.RequestType.NORMAL, redactArgs = 2)
     public void signUp(String phone, String name, String password) {
         log.info("Sign up: {}, {}", phone, name);
         Optional<AppUser> optional = userRepository.findById(phone);
@@ -182,16 +185,37 @@ public class UserService {
     /**
      * 获取用户信息
      *
+     * 缓存未命中时，同一用户的并发请求只会触发一次数据库加载；
+     * 缓存超过刷新时间（user-info 区域的 refresh-after-write）后先返回旧值并在后台重新加载，
+     * 只有超过过期时间的条目才会同步查询数据库
+     *
      * @param phone
      * @return
      */
     public UserInformationDTO getUserInformation(String phone) {
         log.info("getUserInformation: {}", phone);
-        UserInformationDTO userInformationDTO = userCache.get(phone);
-        if (userInformationDTO != null) {
-            return userInformationDTO;
-        }
+        return userCache.get(phone, this::loadUserInformation);
+    }
+
+    /**
+     * 获取用户信息（响应式）
+     *
+     * 供 WebFlux 调用链使用：缓存命中时同步完成，未命中时在缓存加载调度器上查询数据库，不阻塞事件循环线程
+     *
+     * @param phone
+     * @return 用户不存在时为空Mono
+     */
+    public Mono<UserInformationDTO> getUserInformationReactive(String phone) {
+        return userReactiveCache.get(phone, this::loadUserInformation);
+    }
 
+    /**
+     * 从数据库加载用户信息
+     *
+     * @param phone
+     * @return 用户不存在时返回null
+     */
+    private UserInformationDTO loadUserInformation(String phone) {
         Optional<AppUser> optional = userRepository.findById(phone);
         if (optional.isEmpty()) {
             return null;
@@ -200,9 +224,7 @@ public class UserService {
         AppUser appUser = optional.get();
         UserProfile userProfile = getUserProfile(phone);
         UserHealthGoal userHealthGoal = getUserHealthGoal(phone);
-        userInformationDTO = new UserInformationDTO(appUser, userProfile, userHealthGoal);
-        userCache.put(phone, userInformationDTO);
-        return userInformationDTO;
+        return new UserInformationDTO(appUser, userProfile, userHealthGoal);
     }
 
     public AppUser findByOpenId(String openId) {
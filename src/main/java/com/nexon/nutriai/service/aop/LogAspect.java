@@ -1,14 +1,16 @@
 package com.nexon.nutriai.service.aop;
 
+import com.nexon.nutriai.ai.common.AiAPI;
 import com.nexon.nutriai.constant.annotaion.LogAnnotation;
-import com.nexon.nutriai.dao.repository.DialogueDetailRepository;
-import com.nexon.nutriai.dao.repository.DialogueSessionRepository;
-import com.nexon.nutriai.dao.repository.LoginLogRepository;
-import com.nexon.nutriai.dao.repository.SingleRequestLogRepository;
-import com.nexon.nutriai.dao.entity.DialogueDetail;
-import com.nexon.nutriai.dao.entity.DialogueSession;
-import com.nexon.nutriai.dao.entity.LoginLog;
-import com.nexon.nutriai.dao.entity.SingleRequestLog;
+import com.nexon.nutriai.service.log.CaptureBuffer;
+import com.nexon.nutriai.service.log.CapturedText;
+import com.nexon.nutriai.service.log.LatencyMetrics;
+import com.nexon.nutriai.service.log.LogBatchWriter;
+import com.nexon.nutriai.service.log.LogEvent;
+import com.nexon.nutriai.service.log.LogSideEffectExecutor;
+import com.nexon.nutriai.service.log.ResponseCapture;
+import com.nexon.nutriai.service.log.StreamMetrics;
+import com.nexon.nutriai.util.SpringBeanUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -19,16 +21,21 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.publisher.SignalType;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * 日志切面类
  * 
  * 使用AOP技术对带有@LogAnnotation注解的方法进行日志记录。
  * 支持普通请求、登录请求和对话请求三种类型的日志记录。
+ * 日志交给 {@link LogBatchWriter} 排队后批量写入，请求线程不等待数据库。
+ * 流式响应写入 {@link ResponseCapture} 提供的有界缓冲区，超长的响应只保留开头和结尾；
+ * 流结束后的压缩和提交交给 {@link LogSideEffectExecutor}，不占用发出完成信号的线程。
  */
 @Slf4j
 @Aspect
@@ -36,10 +43,18 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class LogAspect {
 
-    private final LoginLogRepository loginLogRepository;
-    private final DialogueSessionRepository dialogueSessionRepository;
-    private final DialogueDetailRepository dialogueDetailRepository;
-    private final SingleRequestLogRepository singleRequestLogRepository;
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+
+    private final LogBatchWriter logBatchWriter;
+    private final ResponseCapture responseCapture;
+    private final LatencyMetrics latencyMetrics;
+    private final StreamMetrics streamMetrics;
+    private final LogSideEffectExecutor logSideEffectExecutor;
+
+    /**
+     * 注解指定的模型接口对应的 Bean，第一次统计时从容器查找一次
+     */
+    private final Map<Class<? extends AiAPI>, AiAPI> modelApis = new ConcurrentHashMap<>();
 
     /**
      * 定义切点
@@ -64,31 +79,82 @@ public class LogAspect {
     @Around("logPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        LogAnnotation logAnnotation = method.getAnnotation(LogAnnotation.class);
-        String description = logAnnotation.value();
-        String methodName = method.getDeclaringClass().getName() + "." + method.getName();
-        LogAnnotation.RequestType requestType = logAnnotation.requestType();
+        LogMethodDescriptor descriptor = LogMethodDescriptor.of(((MethodSignature) joinPoint.getSignature()).getMethod());
 
-        log.debug("========== 开始执行: {} ==========", description.isEmpty() ? methodName : description);
+        log.debug("========== 开始执行: {} ==========", descriptor.displayName());
 
         Object result;
         try {
             result = joinPoint.proceed();
         } catch (Exception e) {
-            if (requestType == LogAnnotation.RequestType.LOGIN) {
-                handleLoginFailure(joinPoint, methodName, description, e.getMessage());
+            latencyMetrics.record(descriptor.methodName(), System.nanoTime() - startNanos);
+            if (descriptor.requestType() == LogAnnotation.RequestType.LOGIN) {
+                handleLoginFailure(joinPoint, descriptor, e.getMessage());
             }
             throw e;
         }
 
-        return switch (requestType) {
-            case LOGIN -> handleLoginRequest(joinPoint, result, methodName, description, startTime);
-            case DIALOGUE -> handleDialogueRequest(joinPoint, result, methodName, description, startTime);
-            default -> handleNormalRequest(joinPoint, result, methodName, description, startTime);
+        Object handled = switch (descriptor.requestType()) {
+            case LOGIN -> handleLoginRequest(joinPoint, result, descriptor, startTime);
+            case DIALOGUE -> handleDialogueRequest(joinPoint, result, descriptor, startTime);
+            default -> handleNormalRequest(joinPoint, result, descriptor, startTime);
         };
+        return recordStreamMetrics(recordLatency(handled, descriptor, startNanos), descriptor);
+    }
+
+    /**
+     * 统计流式响应的首片段耗时、片段间隔和吞吐量，按注解指定的模型接口的 getModel() 汇总
+     * 
+     * @param result 处理后的结果
+     * @param descriptor 方法元数据
+     * @return 处理后的结果
+     */
+    private Object recordStreamMetrics(Object result, LogMethodDescriptor descriptor) {
+        if (descriptor.modelApi() == null || !(result instanceof Flux<?> fluxResult)) {
+            return result;
+        }
+        AiAPI modelApi = modelApi(descriptor.modelApi());
+        return Flux.defer(() -> {
+            StreamMetrics.Tracker tracker = streamMetrics.start(modelApi.getModel());
+            return fluxResult
+                    .doOnNext(tracker::onChunk)
+                    .doFinally(signal -> tracker.onFinish());
+        });
+    }
+
+    private AiAPI modelApi(Class<? extends AiAPI> type) {
+        AiAPI modelApi = modelApis.get(type);
+        return modelApi != null ? modelApi : modelApis.computeIfAbsent(type, SpringBeanUtils::getBean);
+    }
+
+    /**
+     * 记录方法耗时到延迟直方图
+     * 
+     * 响应式结果在完成或失败时记录，被取消的流不计入；同步结果立即记录。
+     * 
+     * @param result 处理后的结果
+     * @param descriptor 方法元数据
+     * @param startNanos 开始时间（纳秒）
+     * @return 处理后的结果
+     */
+    private Object recordLatency(Object result, LogMethodDescriptor descriptor, long startNanos) {
+        if (result instanceof Mono<?> monoResult) {
+            return monoResult.doFinally(signal -> {
+                if (signal != SignalType.CANCEL) {
+                    latencyMetrics.record(descriptor.methodName(), System.nanoTime() - startNanos);
+                }
+            });
+        } else if (result instanceof Flux<?> fluxResult) {
+            return fluxResult.doFinally(signal -> {
+                if (signal != SignalType.CANCEL) {
+                    latencyMetrics.record(descriptor.methodName(), System.nanoTime() - startNanos);
+                }
+            });
+        }
+        latencyMetrics.record(descriptor.methodName(), System.nanoTime() - startNanos);
+        return result;
     }
 
     /**
@@ -96,28 +162,27 @@ public class LogAspect {
      * 
      * @param joinPoint 连接点
      * @param result 方法执行结果
-     * @param methodName 方法名
-     * @param description 方法描述
+     * @param descriptor 方法元数据
      * @param startTime 开始时间
      * @return 处理后的结果
      */
-    private Object handleLoginRequest(ProceedingJoinPoint joinPoint, Object result, String methodName, String description, long startTime) {
+    private Object handleLoginRequest(ProceedingJoinPoint joinPoint, Object result, LogMethodDescriptor descriptor, long startTime) {
         if (result instanceof Mono<?> monoResult) {
             return monoResult
                     .doOnSuccess(success -> {
                         long endTime = System.currentTimeMillis();
-                        log.debug("========== 登录执行成功: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
-                        saveLoginLog(joinPoint, true, null, getLoginType(methodName));
+                        log.debug("========== 登录执行成功: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
+                        saveLoginLog(joinPoint, true, null, descriptor.loginType());
                     })
                     .doOnError(error -> {
                         long endTime = System.currentTimeMillis();
-                        log.error("========== 登录执行失败: {}, 耗时: {}ms, 错误: {} ==========", description.isEmpty() ? methodName : description, (endTime - startTime), error.getMessage());
-                        saveLoginLog(joinPoint, false, error.getMessage(), getLoginType(methodName));
+                        log.error("========== 登录执行失败: {}, 耗时: {}ms, 错误: {} ==========", descriptor.displayName(), (endTime - startTime), error.getMessage());
+                        saveLoginLog(joinPoint, false, error.getMessage(), descriptor.loginType());
                     });
         } else {
             long endTime = System.currentTimeMillis();
-            log.debug("========== 登录执行完成: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
-            saveLoginLog(joinPoint, result != null, null, getLoginType(methodName));
+            log.debug("========== 登录执行完成: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
+            saveLoginLog(joinPoint, result != null, null, descriptor.loginType());
             return result;
         }
     }
@@ -126,30 +191,12 @@ public class LogAspect {
      * 处理登录失败情况
      * 
      * @param joinPoint 连接点
-     * @param methodName 方法名
-     * @param description 方法描述
+     * @param descriptor 方法元数据
      * @param errorMessage 错误信息
      */
-    private void handleLoginFailure(ProceedingJoinPoint joinPoint, String methodName, String description, String errorMessage) {
-        log.error("========== 登录执行失败: {}, 错误: {} ==========", description.isEmpty() ? methodName : description, errorMessage);
-        saveLoginLog(joinPoint, false, errorMessage, getLoginType(methodName));
-    }
-
-    /**
-     * 获取登录类型
-     * 
-     * 根据方法名判断登录类型（微信登录或密码登录）。
-     * 
-     * @param methodName 方法名
-     * @return 登录类型
-     */
-    private String getLoginType(String methodName) {
-        if (methodName.contains("signInWithOpenId")) {
-            return "WECHAT";
-        } else if (methodName.contains("signIn")) {
-            return "PASSWORD";
-        }
-        return "UNKNOWN";
+    private void handleLoginFailure(ProceedingJoinPoint joinPoint, LogMethodDescriptor descriptor, String errorMessage) {
+        log.error("========== 登录执行失败: {}, 错误: {} ==========", descriptor.displayName(), errorMessage);
+        saveLoginLog(joinPoint, false, errorMessage, descriptor.loginType());
     }
 
     /**
@@ -157,12 +204,11 @@ public class LogAspect {
      * 
      * @param joinPoint 连接点
      * @param result 方法执行结果
-     * @param methodName 方法名
-     * @param description 方法描述
+     * @param descriptor 方法元数据
      * @param startTime 开始时间
      * @return 处理后的结果
      */
-    private Object handleDialogueRequest(ProceedingJoinPoint joinPoint, Object result, String methodName, String description, long startTime) {
+    private Object handleDialogueRequest(ProceedingJoinPoint joinPoint, Object result, LogMethodDescriptor descriptor, long startTime) {
         String chatId = null;
         String phone = null;
         String question = null;
@@ -183,42 +229,48 @@ public class LogAspect {
         }
 
         if (result instanceof Flux<?> fluxResult) {
-            StringBuilder responseBuilder = new StringBuilder();
-
             String finalChatId = chatId;
             String finalPhone = phone;
             String finalQuestion = question;
-            return fluxResult
-                    .doOnNext(data -> {
-                        if (data instanceof String) {
-                            responseBuilder.append((String) data);
-                        }
-                    })
-                    .doOnComplete(() -> {
-                        long endTime = System.currentTimeMillis();
-                        log.debug("========== 对话执行成功: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
+            return Flux.defer(() -> {
+                CaptureBuffer capture = responseCapture.open();
+                return fluxResult
+                        .doOnNext(data -> {
+                            if (data instanceof String text) {
+                                capture.append(text);
+                            }
+                        })
+                        .doOnComplete(() -> {
+                            long endTime = System.currentTimeMillis();
+                            log.debug("========== 对话执行成功: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
 
-                        if (finalChatId != null && finalPhone != null && finalQuestion != null) {
-                            saveDialogueLog(finalChatId, finalPhone, finalQuestion, responseBuilder.toString(), methodName);
-                        }
-                    })
-                    .doOnError(error -> {
-                        long endTime = System.currentTimeMillis();
-                        log.error("========== 对话执行失败: {}, 耗时: {}ms, 错误: {} ==========", description.isEmpty() ? methodName : description, (endTime - startTime), error.getMessage());
-                    });
+                            if (finalChatId != null && finalPhone != null && finalQuestion != null) {
+                                // 对话记录是业务数据，不能因为并发上限被丢弃
+                                logSideEffectExecutor.executeRequired(
+                                        () -> saveDialogueLog(finalChatId, finalPhone, finalQuestion, capture.finish(), descriptor.methodName()));
+                            } else {
+                                capture.discard();
+                            }
+                        })
+                        .doOnError(error -> {
+                            long endTime = System.currentTimeMillis();
+                            log.error("========== 对话执行失败: {}, 耗时: {}ms, 错误: {} ==========", descriptor.displayName(), (endTime - startTime), error.getMessage());
+                            capture.discard();
+                        });
+            });
         } else if (result instanceof Mono<?> monoResult) {
             return monoResult
                     .doOnSuccess(success -> {
                         long endTime = System.currentTimeMillis();
-                        log.debug("========== 对话执行成功: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
+                        log.debug("========== 对话执行成功: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
                     })
                     .doOnError(error -> {
                         long endTime = System.currentTimeMillis();
-                        log.error("========== 对话执行失败: {}, 耗时: {}ms, 错误: {} ==========", description.isEmpty() ? methodName : description, (endTime - startTime), error.getMessage());
+                        log.error("========== 对话执行失败: {}, 耗时: {}ms, 错误: {} ==========", descriptor.displayName(), (endTime - startTime), error.getMessage());
                     });
         } else {
             long endTime = System.currentTimeMillis();
-            log.debug("========== 对话执行完成 (非响应式): {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
+            log.debug("========== 对话执行完成 (非响应式): {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
             return result;
         }
     }
@@ -228,47 +280,63 @@ public class LogAspect {
      * 
      * @param joinPoint 连接点
      * @param result 方法执行结果
-     * @param methodName 方法名
-     * @param description 方法描述
+     * @param descriptor 方法元数据
      * @param startTime 开始时间
      * @return 处理后的结果
      */
-    private Object handleNormalRequest(ProceedingJoinPoint joinPoint, Object result, String methodName, String description, long startTime) {
+    private Object handleNormalRequest(ProceedingJoinPoint joinPoint, Object result, LogMethodDescriptor descriptor, long startTime) {
         if (result instanceof Mono<?> monoResult) {
             return monoResult
                     .doOnSuccess(success -> {
                         long endTime = System.currentTimeMillis();
-                        log.debug("========== 普通请求执行成功: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
-                        saveSingleRequestLog(methodName, joinPoint.getArgs(), success, null, (int)(endTime - startTime), true);
-                    })
-                    .doOnError(error -> {
-                        long endTime = System.currentTimeMillis();
-                        log.error("========== 普通请求执行失败: {}, 耗时: {}ms, 错误: {} ==========", description.isEmpty() ? methodName : description, (endTime - startTime), error.getMessage());
-                        saveSingleRequestLog(methodName, joinPoint.getArgs(), null, error.getMessage(), (int)(endTime - startTime), false);
-                    });
-        } else if (result instanceof Flux<?> fluxResult) {
-            StringBuilder responseBuilder = new StringBuilder();
-
-            return fluxResult
-                    .doOnNext(data -> {
-                        if (data != null) {
-                            responseBuilder.append(data);
+                        log.debug("========== 普通请求执行成功: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
+                        if (descriptor.sampleSuccess()) {
+                            saveSingleRequestLog(descriptor, joinPoint.getArgs(), success, null, (int)(endTime - startTime), true);
                         }
                     })
-                    .doOnComplete(() -> {
-                        long endTime = System.currentTimeMillis();
-                        log.debug("========== 普通请求执行成功: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
-                        saveSingleRequestLog(methodName, joinPoint.getArgs(), responseBuilder.toString(), null, (int)(endTime - startTime), true);
-                    })
                     .doOnError(error -> {
                         long endTime = System.currentTimeMillis();
-                        log.error("========== 普通请求执行失败: {}, 耗时: {}ms, 错误: {} ==========", description.isEmpty() ? methodName : description, (endTime - startTime), error.getMessage());
-                        saveSingleRequestLog(methodName, joinPoint.getArgs(), null, error.getMessage(), (int)(endTime - startTime), false);
+                        log.error("========== 普通请求执行失败: {}, 耗时: {}ms, 错误: {} ==========", descriptor.displayName(), (endTime - startTime), error.getMessage());
+                        if (descriptor.sampleError()) {
+                            saveSingleRequestLog(descriptor, joinPoint.getArgs(), null, error.getMessage(), (int)(endTime - startTime), false);
+                        }
                     });
+        } else if (result instanceof Flux<?> fluxResult) {
+            return Flux.defer(() -> {
+                // 订阅时决定是否采样，未采样的流不捕获响应内容
+                CaptureBuffer capture = descriptor.sampleSuccess() ? responseCapture.open(descriptor.maxFieldLength()) : null;
+                return fluxResult
+                        .doOnNext(data -> {
+                            if (capture != null && data != null) {
+                                capture.append(String.valueOf(data));
+                            }
+                        })
+                        .doOnComplete(() -> {
+                            long endTime = System.currentTimeMillis();
+                            log.debug("========== 普通请求执行成功: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
+                            if (capture != null) {
+                                logSideEffectExecutor.execute(
+                                        () -> saveSingleRequestLog(descriptor, joinPoint.getArgs(), capture.finish(), null, (int)(endTime - startTime), true),
+                                        capture::discard);
+                            }
+                        })
+                        .doOnError(error -> {
+                            long endTime = System.currentTimeMillis();
+                            log.error("========== 普通请求执行失败: {}, 耗时: {}ms, 错误: {} ==========", descriptor.displayName(), (endTime - startTime), error.getMessage());
+                            if (capture != null) {
+                                capture.discard();
+                            }
+                            if (descriptor.sampleError()) {
+                                saveSingleRequestLog(descriptor, joinPoint.getArgs(), null, error.getMessage(), (int)(endTime - startTime), false);
+                            }
+                        });
+            });
         } else {
             long endTime = System.currentTimeMillis();
-            log.debug("========== 普通请求执行完成: {}, 耗时: {}ms ==========", description.isEmpty() ? methodName : description, (endTime - startTime));
-            saveSingleRequestLog(methodName, joinPoint.getArgs(), result, null, (int)(endTime - startTime), true);
+            log.debug("========== 普通请求执行完成: {}, 耗时: {}ms ==========", descriptor.displayName(), (endTime - startTime));
+            if (descriptor.sampleSuccess()) {
+                saveSingleRequestLog(descriptor, joinPoint.getArgs(), result, null, (int)(endTime - startTime), true);
+            }
             return result;
         }
     }
@@ -282,73 +350,25 @@ public class LogAspect {
      * @param response AI回答
      * @param methodName 方法名
      */
-    private void saveDialogueLog(String chatId, String phone, String question, String response, String methodName) {
-        executeAsync(() -> {
-            try {
-                DialogueSession session = dialogueSessionRepository.findBySessionId(chatId)
-                        .orElseGet(() -> {
-                            DialogueSession newSession = new DialogueSession();
-                            newSession.setSessionId(chatId);
-                            newSession.setPhone(phone);
-                            newSession.setTitle(question.length() > 50 ? question.substring(0, 50) + "..." : question);
-                            newSession.setMethodName(methodName);
-                            return newSession;
-                        });
-                if (session.getMethodName() == null) {
-                    session.setMethodName(methodName);
-                }
-                dialogueSessionRepository.save(session);
-
-                int maxSequence = dialogueDetailRepository.findBySessionIdOrderBySequence(chatId)
-                        .stream()
-                        .map(DialogueDetail::getSequence)
-                        .max(Integer::compareTo)
-                        .orElse(0);
-
-                DialogueDetail userDetail = new DialogueDetail();
-                userDetail.setSessionId(chatId);
-                userDetail.setMessageType(1);
-                userDetail.setContent(question);
-                userDetail.setSequence(maxSequence + 1);
-                dialogueDetailRepository.save(userDetail);
-
-                DialogueDetail aiDetail = new DialogueDetail();
-                aiDetail.setSessionId(chatId);
-                aiDetail.setMessageType(2);
-                aiDetail.setContent(response);
-                aiDetail.setSequence(maxSequence + 2);
-                dialogueDetailRepository.save(aiDetail);
-            } catch (Exception e) {
-                log.error("保存对话日志失败: chatId={}, methodName={}, error={}", chatId, methodName, e.getMessage(), e);
-            }
-        });
+    private void saveDialogueLog(String chatId, String phone, String question, CapturedText response, String methodName) {
+        logBatchWriter.submit(new LogEvent.Dialogue(chatId, phone, question, response, methodName, LocalDateTime.now()));
     }
 
     /**
      * 保存单次请求日志
      * 
-     * @param methodName 方法名
+     * 按方法的脱敏策略替换参数，字段长度限制在写入线程转换字符串时应用；流式响应在捕获时已按该限制截断。
+     * 
+     * @param descriptor 方法元数据
      * @param args 方法参数
      * @param result 方法执行结果
      * @param errorMessage 错误信息
      * @param executeTime 执行时间
      * @param success 是否成功
      */
-    private void saveSingleRequestLog(String methodName, Object[] args, Object result, String errorMessage, int executeTime, boolean success) {
-        executeAsync(() -> {
-            try {
-                SingleRequestLog log = new SingleRequestLog();
-                log.setMethodName(methodName);
-                log.setRequestParams(Arrays.toString(args));
-                log.setResponseData(result != null ? result.toString() : null);
-                log.setErrorMessage(errorMessage);
-                log.setExecuteTime(executeTime);
-                log.setSuccess(success ? 1 : 0);
-                singleRequestLogRepository.save(log);
-            } catch (Exception e) {
-                log.error("保存单次请求日志失败: methodName={}, error={}", methodName, e.getMessage());
-            }
-        });
+    private void saveSingleRequestLog(LogMethodDescriptor descriptor, Object[] args, Object result, String errorMessage, int executeTime, boolean success) {
+        logBatchWriter.submit(new LogEvent.Request(descriptor.methodName(), descriptor.redact(args), result, errorMessage,
+                executeTime, success, LocalDateTime.now(), descriptor.maxFieldLength()));
     }
 
     /**
@@ -360,32 +380,8 @@ public class LogAspect {
      * @param loginType 登录类型
      */
     private void saveLoginLog(ProceedingJoinPoint joinPoint, boolean success, String failureReason, String loginType) {
-        executeAsync(() -> {
-            try {
-                LoginLog loginLog = new LoginLog();
-                String username = extractUsernameFromArgs(joinPoint.getArgs());
-                loginLog.setUsername(username);
-                loginLog.setStatus(success ? 1 : 0);
-                loginLog.setFailureReason(failureReason);
-                loginLog.setLoginType(loginType);
-                loginLogRepository.save(loginLog);
-            } catch (Exception e) {
-                log.error("保存登录日志失败: error={}", e.getMessage(), e);
-            }
-        });
-    }
-
-    /**
-     * 异步执行任务
-     * 
-     * 使用boundedElastic线程池异步执行任务，避免阻塞主线程。
-     * 
-     * @param task 要执行的任务
-     */
-    private void executeAsync(Runnable task) {
-        Mono.fromRunnable(task)
-                .subscribeOn(Schedulers.boundedElastic())
-                .subscribe();
+        String username = extractUsernameFromArgs(joinPoint.getArgs());
+        logBatchWriter.submit(new LogEvent.Login(username, success, failureReason, loginType, LocalDateTime.now()));
     }
 
     /**
@@ -396,7 +392,7 @@ public class LogAspect {
      */
     private String extractUsernameFromArgs(Object[] args) {
         for (Object arg : args) {
-            if (arg instanceof String str && str.matches("^1[3-9]\\d{9}$")) {
+            if (arg instanceof String str && PHONE_PATTERN.matcher(str).matches()) {
                 return str;
             }
         }
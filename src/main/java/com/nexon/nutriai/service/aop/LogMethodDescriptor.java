@@ -0,0 +1,121 @@
+package com.nexon.nutriai.service.aop;
+
+import com.nexon.nutriai.ai.common.AiAPI;
+import com.nexon.nutriai.constant.annotaion.LogAnnotation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 日志切面的方法元数据
+ *
+ * 注解内容、完整方法名和登录类型只与被拦截的方法有关，每个 {@link Method} 第一次被拦截时解析一次并缓存，
+ * 之后的调用直接取用，不再反射读取注解或拼接字符串。
+ *
+ * @param methodName 完整方法名（类名.方法名）
+ * @param displayName 日志中展示的名称，注解描述为空时使用方法名
+ * @param requestType 请求类型
+ * @param loginType 登录类型，仅登录请求有意义
+ * @param successSampleRate 成功请求的采样率
+ * @param alwaysLogErrors 失败请求是否总是记录
+ * @param maxFieldLength 参数和返回值的最大长度，-1 表示不限制
+ * @param redactMask 需要脱敏的参数下标位图，第 i 位为 1 表示第 i 个参数脱敏，没有需要脱敏的参数时为 0
+ * @param modelApi 生成流式响应的模型接口，不统计时为 null
+ */
+record LogMethodDescriptor(String methodName, String displayName, LogAnnotation.RequestType requestType,
+                           String loginType, double successSampleRate, boolean alwaysLogErrors, int maxFieldLength,
+                           long redactMask, Class<? extends AiAPI> modelApi) {
+
+    private static final Map<Method, LogMethodDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    private static final String REDACTED = "***";
+
+    /**
+     * 获取方法的元数据
+     *
+     * @param method 带有 {@link LogAnnotation} 注解的方法
+     * @return 方法元数据
+     */
+    static LogMethodDescriptor of(Method method) {
+        LogMethodDescriptor descriptor = DESCRIPTORS.get(method);
+        return descriptor != null ? descriptor : DESCRIPTORS.computeIfAbsent(method, LogMethodDescriptor::resolve);
+    }
+
+    private static LogMethodDescriptor resolve(Method method) {
+        LogAnnotation logAnnotation = method.getAnnotation(LogAnnotation.class);
+        String methodName = method.getDeclaringClass().getName() + "." + method.getName();
+        String description = logAnnotation.value();
+        return new LogMethodDescriptor(methodName, description.isEmpty() ? methodName : description,
+                logAnnotation.requestType(), loginType(method.getName()), logAnnotation.successSampleRate(),
+                logAnnotation.alwaysLogErrors(), logAnnotation.maxFieldLength(),
+                redactMask(logAnnotation.redactArgs(), method.getParameterCount()),
+                logAnnotation.model() == AiAPI.class ? null : logAnnotation.model());
+    }
+
+    /**
+     * 成功的请求是否记录
+     */
+    boolean sampleSuccess() {
+        return successSampleRate >= 1.0
+                || successSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    /**
+     * 失败的请求是否记录
+     */
+    boolean sampleError() {
+        return alwaysLogErrors || sampleSuccess();
+    }
+
+    /**
+     * 脱敏参数，需要脱敏时返回副本，不修改原数组
+     *
+     * @param args 方法参数
+     * @return 脱敏后的参数
+     */
+    Object[] redact(Object[] args) {
+        if (redactMask == 0) {
+            return args;
+        }
+        Object[] redacted = args.clone();
+        for (int i = 0; i < redacted.length && i < Long.SIZE; i++) {
+            if (redact(i) && redacted[i] != null) {
+                redacted[i] = REDACTED;
+            }
+        }
+        return redacted;
+    }
+
+    /**
+     * 第 index 个参数是否脱敏
+     */
+    boolean redact(int index) {
+        return index >= 0 && index < Long.SIZE && (redactMask & (1L << index)) != 0;
+    }
+
+    private static long redactMask(int[] redactArgs, int parameterCount) {
+        long mask = 0;
+        for (int index : redactArgs) {
+            if (index < 0 || index >= parameterCount || index >= Long.SIZE) {
+                throw new IllegalArgumentException("redactArgs index " + index + " out of range for " + parameterCount
+                        + " parameters");
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    /**
+     * 根据方法名判断登录类型（微信登录或密码登录）
+     */
+    private static String loginType(String methodName) {
+        if (methodName.contains("signInWithOpenId")) {
+            return "WECHAT";
+        } else if (methodName.contains("signIn")) {
+            return "PASSWORD";
+        }
+        return "UNKNOWN";
+    }
+}
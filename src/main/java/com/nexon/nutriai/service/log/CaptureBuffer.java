@@ -0,0 +1,210 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.dao.converter.TextCompression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 单个流式响应的捕获缓冲区
+ *
+ * 文本按 UTF-8 直接编码进定长的字节块，块从 {@link ResponseCapture} 的池中借用。
+ * 前 headBytes 字节全部保留；之后的内容只保留最近的 tailBytes 字节，
+ * 尾部写满后回收最旧的块继续写入，因此每个流占用的内存不超过 headBytes + tailBytes + 一个块。
+ * 头部按完整字符截止，放不下的字符整个写入尾部（tailBytes 为 0 时整个省略），头部末尾不会留下半个字符。
+ *
+ * 不是线程安全的：Reactive Streams 保证同一个流的 onNext/onComplete/onError 串行发出。
+ * 取消信号可能与 onNext 并发，所以取消时不归还块，交给 GC 回收。
+ */
+public final class CaptureBuffer {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ResponseCapture pool;
+    private final int chunkSize;
+    private long headLimit;
+    private final long tailLimit;
+
+    private final List<byte[]> headChunks = new ArrayList<>();
+    private byte[] headChunk = EMPTY;
+    private int headPos;
+    private long headBytes;
+
+    private final ArrayDeque<byte[]> tailChunks = new ArrayDeque<>();
+    private byte[] tailChunk = EMPTY;
+    private int tailPos;
+
+    private long totalBytes;
+    private long droppedBytes;
+    private char pendingHighSurrogate;
+    private boolean closed;
+
+    CaptureBuffer(ResponseCapture pool, int chunkSize, long headLimit, long tailLimit) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.headLimit = headLimit;
+        this.tailLimit = tailLimit;
+    }
+
+    /**
+     * 追加文本
+     *
+     * @param text 文本片段，可以在代理对中间断开
+     */
+    public void append(CharSequence text) {
+        if (closed) {
+            return;
+        }
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (pendingHighSurrogate != 0) {
+                char high = pendingHighSurrogate;
+                pendingHighSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    reserve(4);
+                    put((byte) (0xF0 | (codePoint >> 18)));
+                    put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    put((byte) (0x80 | (codePoint & 0x3F)));
+                    continue;
+                }
+                put((byte) '?');
+            }
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                reserve(2);
+                put((byte) (0xC0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                put((byte) '?');
+            } else {
+                reserve(3);
+                put((byte) (0xE0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * 结束捕获：压缩内容并归还所有块
+     *
+     * @return 压缩后的文本
+     */
+    public CapturedText finish() {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            put((byte) '?');
+        }
+        closed = true;
+        Deflater deflater = TextCompression.newDeflater(Deflater.BEST_SPEED);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(totalBytes / 4 + 64, 1 << 16));
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+                writeHead(out);
+                writeTail(out);
+            }
+            return new CapturedText(bytes.toByteArray(), totalBytes, droppedBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+            release();
+        }
+    }
+
+    /**
+     * 放弃捕获并归还所有块
+     */
+    public void discard() {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+
+    /**
+     * 头部剩余空间放不下接下来的 length 字节时提前结束头部
+     */
+    private void reserve(int length) {
+        if (headBytes < headLimit && headBytes + length > headLimit) {
+            headLimit = headBytes;
+        }
+    }
+
+    private void put(byte b) {
+        totalBytes++;
+        if (headBytes < headLimit) {
+            if (headPos == headChunk.length) {
+                headChunk = pool.borrow();
+                headChunks.add(headChunk);
+                headPos = 0;
+            }
+            headChunk[headPos++] = b;
+            headBytes++;
+            return;
+        }
+        if (tailLimit == 0) {
+            droppedBytes++;
+            return;
+        }
+        if (tailPos == tailChunk.length) {
+            if ((long) tailChunks.size() * chunkSize >= tailLimit) {
+                // 尾部已满：回收最旧的块作为新块，被覆盖的内容计入省略
+                tailChunk = tailChunks.pollFirst();
+                droppedBytes += chunkSize;
+            } else {
+                tailChunk = pool.borrow();
+            }
+            tailChunks.addLast(tailChunk);
+            tailPos = 0;
+        }
+        tailChunk[tailPos++] = b;
+    }
+
+    private void writeHead(DeflaterOutputStream out) throws IOException {
+        for (int i = 0, last = headChunks.size() - 1; i <= last; i++) {
+            out.write(headChunks.get(i), 0, i == last ? headPos : chunkSize);
+        }
+    }
+
+    private void writeTail(DeflaterOutputStream out) throws IOException {
+        boolean first = true;
+        for (byte[] chunk : tailChunks) {
+            int end = chunk == tailChunk ? tailPos : chunkSize;
+            int start = 0;
+            if (first && droppedBytes > 0) {
+                out.write(String.format("\n\n...[省略 %d 字节]...\n\n", droppedBytes).getBytes(StandardCharsets.UTF_8));
+                // 省略处可能截断了一个多字节字符，跳过残留的后续字节
+                while (start < end && (chunk[start] & 0xC0) == 0x80) {
+                    start++;
+                }
+            }
+            first = false;
+            out.write(chunk, start, end - start);
+        }
+        if (first && droppedBytes > 0) {
+            out.write(String.format("\n\n...[省略 %d 字节]", droppedBytes).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void release() {
+        headChunks.forEach(pool::giveBack);
+        tailChunks.forEach(pool::giveBack);
+        headChunks.clear();
+        tailChunks.clear();
+        headChunk = EMPTY;
+        tailChunk = EMPTY;
+    }
+}
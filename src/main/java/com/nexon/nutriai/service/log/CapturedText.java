@@ -0,0 +1,35 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.dao.converter.TextCompression;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 捕获到的流式响应
+ *
+ * 内容以 UTF-8 编码后按 {@link TextCompression} 的字典压缩，在队列中等待写入期间只占用压缩后的内存，
+ * 写入数据库时直接包装为存储格式，不再重新压缩；
+ * 超出上限时中间部分已被省略，并在原位置插入省略标记。
+ *
+ * @param deflated 压缩后的内容
+ * @param totalBytes 响应的原始字节数（含被省略的部分）
+ * @param droppedBytes 被省略的字节数
+ */
+public record CapturedText(byte[] deflated, long totalBytes, long droppedBytes) {
+
+    /**
+     * 是否省略了部分内容
+     */
+    public boolean truncated() {
+        return droppedBytes > 0;
+    }
+
+    /**
+     * 解压为字符串
+     *
+     * @return 捕获到的文本
+     */
+    public String text() {
+        return new String(TextCompression.inflate(deflated), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.dao.repository.LogBatchRepository.LoginLogRow;
+import com.nexon.nutriai.dao.repository.LogBatchRepository.SingleRequestLogRow;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 写入 {@link LogJournal} 的日志记录
+ *
+ * 与 {@link LogEvent} 不同，记录中只有字符串和数值：参数和返回值在写入 journal 前已经转换为存储格式，
+ * 导入数据库时不再依赖原始对象。对话的序列号需要查询数据库，留到导入时分配。
+ *
+ * 编码格式：类型标记后依次写各字段，字符串为 [UTF-8 长度, 内容]，长度 -1 表示 null。
+ */
+sealed interface JournalEntry {
+
+    byte LOGIN = 1;
+    byte REQUEST = 2;
+    byte DIALOGUE = 3;
+
+    record Login(LoginLogRow row) implements JournalEntry {
+    }
+
+    record Request(SingleRequestLogRow row) implements JournalEntry {
+    }
+
+    /**
+     * 一轮对话，question 和 response 为存储格式
+     */
+    record Dialogue(String chatId, String phone, String title, String methodName, String question, String response,
+                    LocalDateTime createTime) implements JournalEntry {
+    }
+
+    static void write(JournalEntry entry, DataOutput out) throws IOException {
+        switch (entry) {
+            case Login(LoginLogRow row) -> {
+                out.writeByte(LOGIN);
+                writeString(out, row.username());
+                out.writeInt(row.status());
+                writeString(out, row.failureReason());
+                writeString(out, row.loginType());
+                writeTime(out, row.loginTime());
+            }
+            case Request(SingleRequestLogRow row) -> {
+                out.writeByte(REQUEST);
+                writeString(out, row.methodName());
+                writeString(out, row.requestParams());
+                writeString(out, row.responseData());
+                out.writeInt(row.success());
+                writeString(out, row.errorMessage());
+                out.writeInt(row.executeTime());
+                writeTime(out, row.createTime());
+            }
+            case Dialogue dialogue -> {
+                out.writeByte(DIALOGUE);
+                writeString(out, dialogue.chatId());
+                writeString(out, dialogue.phone());
+                writeString(out, dialogue.title());
+                writeString(out, dialogue.methodName());
+                writeString(out, dialogue.question());
+                writeString(out, dialogue.response());
+                writeTime(out, dialogue.createTime());
+            }
+        }
+    }
+
+    static JournalEntry read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case LOGIN -> new Login(new LoginLogRow(readString(in), in.readInt(), readString(in), readString(in),
+                    readTime(in)));
+            case REQUEST -> new Request(new SingleRequestLogRow(readString(in), readString(in), readString(in),
+                    in.readInt(), readString(in), in.readInt(), readTime(in)));
+            case DIALOGUE -> new Dialogue(readString(in), readString(in), readString(in), readString(in),
+                    readString(in), readString(in), readTime(in));
+            default -> throw new IOException("unknown journal entry type: " + type);
+        };
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,147 @@
+package com.nexon.nutriai.service.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滚动窗口的无锁延迟直方图
+ *
+ * 以微秒记录，桶按对数线性划分：32 微秒以内每微秒一个桶，之后每个 2 的幂区间再等分为 16 个桶，
+ * 分位数的相对误差不超过 1/16。时间按 slotDuration 切成若干槽组成环，记录时只对当前槽的桶做原子自增；
+ * 进入新的时间槽时由第一个写入的线程通过 CAS 认领并清空旧数据，查询时汇总窗口内的槽。
+ *
+ * 认领槽与清空之间并发写入的少量样本可能丢失，统计值是近似的。
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+    private static final int LINEAR_EXPONENT = 5;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final long slotNanos;
+    private final Slot[] slots;
+
+    /**
+     * @param slotNanos 每个时间槽的长度（纳秒）
+     * @param slotCount 槽的个数，决定可查询的最长窗口
+     */
+    public LatencyHistogram(long slotNanos, int slotCount) {
+        this.slotNanos = slotNanos;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        long epoch = Math.floorDiv(System.nanoTime(), slotNanos);
+        Slot slot = slots[(int) Math.floorMod(epoch, (long) slots.length)];
+        long current = slot.epoch.get();
+        if (current != epoch) {
+            if (current > epoch) {
+                return;
+            }
+            if (slot.epoch.compareAndSet(current, epoch)) {
+                slot.reset();
+            }
+        }
+        slot.counts.incrementAndGet(indexOf(micros));
+        slot.max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * 汇总最近若干个时间槽
+     *
+     * @param windowSlots 窗口包含的槽数，不超过槽的总数
+     * @return 窗口内的分位数（微秒）
+     */
+    public Snapshot snapshot(int windowSlots) {
+        long now = Math.floorDiv(System.nanoTime(), slotNanos);
+        long oldest = now - Math.min(windowSlots, slots.length) + 1;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch.get();
+            if (epoch < oldest || epoch > now) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = slot.counts.get(i);
+                counts[i] += count;
+                total += count;
+            }
+            max = Math.max(max, slot.max.get());
+        }
+        return new Snapshot(total, percentile(counts, total, 0.5, max), percentile(counts, total, 0.9, max),
+                percentile(counts, total, 0.99, max), percentile(counts, total, 0.999, max), max);
+    }
+
+    /**
+     * 窗口内的延迟分布，单位为微秒
+     */
+    public record Snapshot(long count, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    static int indexOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶内的最大值
+     */
+    static long upperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_EXPONENT;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            max.set(0);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 带有 {@link com.nexon.nutriai.constant.annotaion.LogAnnotation} 注解的方法的延迟统计
+ *
+ * 每个方法一个 {@link LatencyHistogram}，由日志切面在请求完成时记录，查询时按配置的窗口汇总。
+ */
+@Component
+public class LatencyMetrics {
+
+    private final long slotNanos;
+    private final int slotCount;
+    private final List<Duration> windows;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyMetrics(LogProperties logProperties) {
+        LogProperties.Latency latency = logProperties.latency();
+        this.slotNanos = latency.slotDuration().toNanos();
+        this.windows = latency.windows();
+        long longestWindow = windows.stream().mapToLong(Duration::toNanos).max().orElse(slotNanos);
+        this.slotCount = (int) Math.max(1, (longestWindow + slotNanos - 1) / slotNanos);
+    }
+
+    /**
+     * 记录一次调用耗时
+     *
+     * @param methodName 完整方法名
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String methodName, long nanos) {
+        LatencyHistogram histogram = histograms.get(methodName);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(methodName, _ -> new LatencyHistogram(slotNanos, slotCount));
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * 按方法名和窗口汇总延迟分布
+     *
+     * @return 方法名 -> (窗口 -> 延迟分布)，按方法名排序
+     */
+    public Map<String, Map<Duration, LatencyHistogram.Snapshot>> snapshot() {
+        Map<String, Map<Duration, LatencyHistogram.Snapshot>> result = new TreeMap<>();
+        histograms.forEach((methodName, histogram) -> {
+            Map<Duration, LatencyHistogram.Snapshot> byWindow = new TreeMap<>();
+            for (Duration window : windows) {
+                byWindow.put(window, histogram.snapshot((int) Math.max(1, window.toNanos() / slotNanos)));
+            }
+            result.put(methodName, byWindow);
+        });
+        return result;
+    }
+}
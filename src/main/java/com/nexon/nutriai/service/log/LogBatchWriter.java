@@ -0,0 +1,559 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import com.nexon.nutriai.dao.converter.TextCompression;
+import com.nexon.nutriai.dao.repository.LogBatchRepository;
+import com.nexon.nutriai.dao.repository.LogBatchRepository.DialogueDetailRow;
+import com.nexon.nutriai.dao.repository.LogBatchRepository.DialogueSessionRow;
+import com.nexon.nutriai.dao.repository.LogBatchRepository.LoginLogRow;
+import com.nexon.nutriai.dao.repository.LogBatchRepository.SingleRequestLogRow;
+import com.nexon.nutriai.util.cache.Cache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 日志批量写入器
+ *
+ * 请求线程只把 {@link LogEvent} 放入有界的环形队列（{@link ArrayBlockingQueue}），不等待磁盘或数据库；
+ * 队列满时丢弃新事件并计数，日志写入变慢不会反压到请求处理。
+ *
+ * 写入线程取出事件，攒满 batchSize 条或等待超过 flushInterval 后转换为 {@link JournalEntry}，
+ * 追加到内存映射的 {@link LogJournal} 并统一刷盘一次；导入线程再从 journal 批量读出，
+ * 在一个事务内写入数据库并保存导入到的偏移量，再推进检查点文件。数据库卡顿或暂时不可用（如 H2 checkpoint）
+ * 只会让 journal 积压，不影响写入线程；进程崩溃后从两者中较新的检查点继续导入，已提交的记录不会重复写入。
+ *
+ * 对话序列号由导入线程分配：每个会话的最大序列号缓存在 dialogue-sequence 区域，
+ * 只在缓存未命中时查一次索引上的 MAX，之后每轮对话只需递增，写入开销与对话轮数无关。
+ */
+@Slf4j
+@Component
+public class LogBatchWriter {
+
+    private static final int TITLE_MAX_LENGTH = 50;
+    private static final long MAX_RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final LogBatchRepository logBatchRepository;
+    private final Cache<String, Integer> dialogueSequenceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LogEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path journalDirectory;
+    private final int segmentSize;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder journaledCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream(4096);
+    private final DataOutputStream encoder = new DataOutputStream(encodeBuffer);
+
+    private volatile boolean running = true;
+    private volatile boolean ingesting = true;
+    private LogJournal journal;
+    private Thread writerThread;
+    private Thread ingesterThread;
+
+    public LogBatchWriter(LogBatchRepository logBatchRepository, Cache<String, Integer> dialogueSequenceCache,
+                          PlatformTransactionManager transactionManager, LogProperties logProperties) {
+        LogProperties.Writer writer = logProperties.writer();
+        LogProperties.Journal journal = logProperties.journal();
+        this.logBatchRepository = logBatchRepository;
+        this.dialogueSequenceCache = dialogueSequenceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(writer.queueCapacity());
+        this.batchSize = writer.batchSize();
+        this.flushIntervalNanos = writer.flushInterval().toNanos();
+        this.journalDirectory = Path.of(journal.directory());
+        this.segmentSize = (int) journal.segmentSize().toBytes();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        journal = new LogJournal(journalDirectory, segmentSize);
+        ingesterThread = Thread.ofPlatform()
+                .name("log-ingester")
+                .daemon(true)
+                .start(this::ingestLoop);
+        writerThread = Thread.ofPlatform()
+                .name("log-writer")
+                .daemon(true)
+                .start(this::runLoop);
+    }
+
+    /**
+     * 停止写入：先把队列中剩余的事件写入 journal，再等待导入线程导入完已刷盘的记录
+     *
+     * 不中断这两个线程：H2 的文件存储在 IO 期间被中断会关闭数据库。
+     * 超时未导入的记录保留在 journal 中，下次启动后继续导入。
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        ingesting = false;
+        LockSupport.unpark(ingesterThread);
+        ingesterThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 提交日志事件，不阻塞
+     *
+     * @param event 日志事件
+     * @return 是否入队，队列已满时返回 false
+     */
+    public boolean submit(LogEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * 获取写入统计
+     *
+     * @return 统计快照
+     */
+    public Stats stats() {
+        return new Stats(queue.size(), queue.remainingCapacity() + queue.size(),
+                droppedCount.sum(), journaledCount.sum(), writtenCount.sum(), failedCount.sum(), flushCount.sum(),
+                Math.max(0, journal.syncedOffset() - journal.checkpoint()), journal.segmentCount());
+    }
+
+    /**
+     * 写入统计
+     *
+     * @param queueDepth 当前排队的事件数
+     * @param queueCapacity 队列容量
+     * @param droppedCount 因队列已满丢弃的事件数
+     * @param journaledCount 已写入 journal 的事件数
+     * @param writtenCount 已导入数据库的事件数
+     * @param failedCount 写入失败的事件数
+     * @param flushCount 批量导入数据库的次数
+     * @param journalBacklogBytes journal 中尚未导入数据库的字节数
+     * @param journalSegments journal 段文件个数
+     */
+    public record Stats(int queueDepth, int queueCapacity, long droppedCount, long journaledCount, long writtenCount,
+                        long failedCount, long flushCount, long journalBacklogBytes, int journalSegments) {
+    }
+
+    private void runLoop() {
+        List<LogEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            append(batch);
+        }
+        queue.drainTo(batch);
+        append(batch);
+    }
+
+    /**
+     * 攒批：等到第一条事件后，继续收集到 batchSize 条或距第一条超过 flushInterval 为止；
+     * 空闲时每个 flushInterval 醒来一次检查停止标志
+     */
+    private void collect(List<LogEvent> batch) throws InterruptedException {
+        LogEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            LogEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * 把一批事件追加到 journal，整批只刷盘一次
+     */
+    private void append(List<LogEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int appended = 0;
+        for (LogEvent event : batch) {
+            try {
+                encodeBuffer.reset();
+                JournalEntry.write(toEntry(event), encoder);
+                journal.append(encodeBuffer.toByteArray(), encodeBuffer.size());
+                appended++;
+            } catch (IOException | RuntimeException e) {
+                failedCount.increment();
+                log.error("写入日志 journal 失败: type={}, error={}", event.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+        journal.sync();
+        journaledCount.add(appended);
+        batch.clear();
+        LockSupport.unpark(ingesterThread);
+    }
+
+    /**
+     * 导入：从检查点读出已刷盘的记录写入数据库；没有新记录时等待写入线程唤醒或 flushInterval 超时。
+     * 一批记录全部写入或确认跳过后才推进检查点：
+     * 连接失败、锁超时等暂时性错误不跳过任何记录，按指数退避（最长 {@link #MAX_RETRY_BACKOFF_NANOS}）一直重试；
+     * 其他错误改为逐条写入，只跳过写不进去的那条记录并记录日志，不影响同一批的其他记录。
+     * journal 中损坏的记录或缺失的段计入失败数，跳到下一段继续导入；其他读取错误退避后重试。
+     * 每个事务同时保存导入到的偏移量，崩溃后从数据库中的偏移量继续，已提交的记录不会重复导入。
+     * 停止时未写入的记录保留在 journal 中，下次启动再导入。
+     */
+    private void ingestLoop() {
+        restoreCheckpoint();
+        List<LogJournal.Record> records = new ArrayList<>(batchSize);
+        List<Pending> pending = new ArrayList<>(batchSize);
+        long next = journal.checkpoint();
+        int attempts = 0;
+        while (true) {
+            if (pending.isEmpty()) {
+                long from = journal.checkpoint();
+                try {
+                    next = journal.read(from, batchSize, records);
+                } catch (LogJournal.CorruptedException e) {
+                    long skipTo = journal.skipSegment(from);
+                    failedCount.increment();
+                    log.error("日志 journal 无法读取，跳过 [{}, {}): {}", from, skipTo, e.getMessage());
+                    saveCheckpoint(skipTo);
+                    continue;
+                } catch (RuntimeException e) {
+                    log.error("读取日志 journal 失败，稍后重试: offset={}, error={}", from, e.getMessage(), e);
+                    if (!ingesting) {
+                        return;
+                    }
+                    backoff(Math.min(flushIntervalNanos << Math.min(attempts++, 16), MAX_RETRY_BACKOFF_NANOS));
+                    continue;
+                }
+                if (records.isEmpty()) {
+                    if (!ingesting) {
+                        return;
+                    }
+                    LockSupport.parkNanos(flushIntervalNanos);
+                    continue;
+                }
+                parse(records, pending);
+                records.clear();
+            }
+            if (!pending.isEmpty()) {
+                ingest(pending, next);
+            }
+            if (!pending.isEmpty()) {
+                // 暂时性错误：检查点不动，退避后重试剩余的记录
+                if (!ingesting) {
+                    return;
+                }
+                backoff(Math.min(flushIntervalNanos << Math.min(attempts++, 16), MAX_RETRY_BACKOFF_NANOS));
+                continue;
+            }
+            attempts = 0;
+            saveCheckpoint(next);
+        }
+    }
+
+    /**
+     * 启动时对齐检查点：数据库中的偏移量与日志在同一个事务内提交，写入数据库后、保存检查点文件前崩溃时，
+     * 它比检查点文件更新，从它继续导入。偏移量按 journal id 保存，journal 目录重建后不会误用旧值。
+     */
+    private void restoreCheckpoint() {
+        int attempts = 0;
+        while (ingesting) {
+            try {
+                long committed = logBatchRepository.findJournalCheckpoint(journal.id());
+                if (committed > journal.checkpoint() && committed <= journal.syncedOffset()) {
+                    log.info("日志 journal 从数据库中的检查点继续导入: {} -> {}", journal.checkpoint(), committed);
+                    journal.checkpoint(committed);
+                }
+                return;
+            } catch (Exception e) {
+                if (!isTransient(e)) {
+                    log.error("读取数据库中的日志 journal 检查点失败，使用检查点文件: {}", e.getMessage(), e);
+                    return;
+                }
+                log.warn("读取数据库中的日志 journal 检查点失败，稍后重试: {}", e.getMessage());
+                backoff(Math.min(flushIntervalNanos << Math.min(attempts++, 16), MAX_RETRY_BACKOFF_NANOS));
+            }
+        }
+    }
+
+    private void saveCheckpoint(long offset) {
+        try {
+            journal.checkpoint(offset);
+        } catch (IOException e) {
+            log.error("保存日志 journal 检查点失败: offset={}, error={}", offset, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 解析 journal 记录，无法解析的记录计入失败数并跳过
+     */
+    private void parse(List<LogJournal.Record> records, List<Pending> entries) {
+        for (LogJournal.Record record : records) {
+            try {
+                entries.add(new Pending(JournalEntry.read(new DataInputStream(new ByteArrayInputStream(record.data()))),
+                        record.next()));
+            } catch (IOException e) {
+                failedCount.increment();
+                log.error("解析日志 journal 记录失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 导入一批记录，写入或跳过的记录从 pending 中移除
+     *
+     * 先在一个事务内整批写入；遇到非暂时性错误时逐条写入，每条一个事务，写不进去的记录跳过。
+     * 遇到暂时性错误时立即返回，剩余的记录留在 pending 中等待重试。
+     *
+     * @param next 整批写入后的检查点
+     */
+    private void ingest(List<Pending> pending, long next) {
+        try {
+            write(pending, next);
+            writtenCount.add(pending.size());
+            pending.clear();
+            return;
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("批量写入日志失败，稍后重试: size={}, error={}", pending.size(), e.getMessage());
+                return;
+            }
+            log.error("批量写入日志失败，改为逐条写入: size={}, error={}", pending.size(), e.getMessage(), e);
+        }
+        Iterator<Pending> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            try {
+                write(List.of(entry), entry.next());
+                writtenCount.increment();
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    log.warn("逐条写入日志失败，稍后重试: remaining={}, error={}", pending.size(), e.getMessage());
+                    return;
+                }
+                failedCount.increment();
+                log.error("日志记录无法写入，已跳过: {}, error={}", describe(entry.entry()), e.getMessage(), e);
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 在一个事务内写入记录并保存检查点，提交成功后才推进缓存的序列号，回滚的批次下次重新从数据库读取
+     */
+    private void write(List<Pending> entries, long checkpoint) {
+        List<LoginLogRow> loginRows = new ArrayList<>();
+        List<SingleRequestLogRow> requestRows = new ArrayList<>();
+        List<JournalEntry.Dialogue> dialogues = new ArrayList<>();
+        for (Pending pending : entries) {
+            switch (pending.entry()) {
+                case JournalEntry.Login login -> loginRows.add(login.row());
+                case JournalEntry.Request request -> requestRows.add(request.row());
+                case JournalEntry.Dialogue dialogue -> dialogues.add(dialogue);
+            }
+        }
+        try {
+            Map<String, Integer> sequences = transactionTemplate.execute(_ -> {
+                if (!loginRows.isEmpty()) {
+                    logBatchRepository.batchInsertLoginLogs(loginRows);
+                }
+                if (!requestRows.isEmpty()) {
+                    logBatchRepository.batchInsertSingleRequestLogs(requestRows);
+                }
+                Map<String, Integer> written = dialogues.isEmpty() ? Map.of() : writeDialogues(dialogues);
+                logBatchRepository.saveJournalCheckpoint(journal.id(), checkpoint);
+                return written;
+            });
+            if (sequences != null) {
+                sequences.forEach(dialogueSequenceCache::put);
+            }
+        } finally {
+            flushCount.increment();
+        }
+    }
+
+    /**
+     * 已解析、等待写入的记录
+     *
+     * @param entry 日志记录
+     * @param next 写入这条记录后可以推进到的检查点
+     */
+    private record Pending(JournalEntry entry, long next) {
+    }
+
+    /**
+     * 是否为重试可能成功的错误：连接或资源不可用、锁等待超时、查询超时等
+     */
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * 退避等待，写入线程的唤醒不会提前结束等待；停止时立即返回
+     */
+    private void backoff(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while (ingesting && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * 跳过的记录在日志中的描述，不输出参数和对话内容
+     */
+    private static String describe(JournalEntry entry) {
+        return switch (entry) {
+            case JournalEntry.Login(LoginLogRow row) -> "login[username=" + row.username()
+                    + ", time=" + row.loginTime() + "]";
+            case JournalEntry.Request(SingleRequestLogRow row) -> "request[method=" + row.methodName()
+                    + ", time=" + row.createTime() + "]";
+            case JournalEntry.Dialogue dialogue -> "dialogue[chatId=" + dialogue.chatId() + ", method="
+                    + dialogue.methodName() + ", time=" + dialogue.createTime() + "]";
+        };
+    }
+
+    /**
+     * 写入对话：不存在的会话先建会话，同一批内同一会话的多轮对话按顺序连续编号
+     *
+     * @return 各会话写入后的最大序列号
+     */
+    private Map<String, Integer> writeDialogues(List<JournalEntry.Dialogue> dialogues) {
+        Map<String, Integer> nextSequences = new HashMap<>();
+        List<DialogueSessionRow> sessionRows = new ArrayList<>();
+        List<DialogueDetailRow> detailRows = new ArrayList<>(dialogues.size() * 2);
+        for (JournalEntry.Dialogue dialogue : dialogues) {
+            String chatId = dialogue.chatId();
+            Integer sequence = nextSequences.get(chatId);
+            if (sequence == null) {
+                sequence = dialogueSequenceCache.get(chatId);
+            }
+            if (sequence == null) {
+                if (logBatchRepository.existsDialogueSession(chatId)) {
+                    logBatchRepository.fillMissingMethodName(chatId, dialogue.methodName());
+                    sequence = logBatchRepository.findMaxSequence(chatId);
+                } else {
+                    sessionRows.add(new DialogueSessionRow(chatId, dialogue.phone(), dialogue.title(),
+                            dialogue.methodName(), dialogue.createTime()));
+                    sequence = 0;
+                }
+            }
+            detailRows.add(new DialogueDetailRow(chatId, 1, dialogue.question(), sequence + 1, dialogue.createTime()));
+            detailRows.add(new DialogueDetailRow(chatId, 2, dialogue.response(), sequence + 2, dialogue.createTime()));
+            nextSequences.put(chatId, sequence + 2);
+        }
+        if (!sessionRows.isEmpty()) {
+            logBatchRepository.batchInsertDialogueSessions(sessionRows);
+        }
+        logBatchRepository.batchInsertDialogueDetails(detailRows);
+        return nextSequences;
+    }
+
+    /**
+     * 转换为 journal 记录：参数和返回值在这里转换为存储格式
+     */
+    static JournalEntry toEntry(LogEvent event) {
+        return switch (event) {
+            case LogEvent.Login login -> new JournalEntry.Login(new LoginLogRow(login.username(),
+                    login.success() ? 1 : 0, login.failureReason(), login.loginType(), login.loginTime()));
+            case LogEvent.Request request -> new JournalEntry.Request(new SingleRequestLogRow(request.methodName(),
+                    TextCompression.encode(safeToString(request.args(), request.maxFieldLength())),
+                    request.result() != null ? resultToString(request.result(), request.maxFieldLength()) : null,
+                    request.success() ? 1 : 0,
+                    request.errorMessage(), request.executeTime(), request.createTime()));
+            case LogEvent.Dialogue dialogue -> new JournalEntry.Dialogue(dialogue.chatId(), dialogue.phone(),
+                    toTitle(dialogue.question()), dialogue.methodName(), TextCompression.encode(dialogue.question()),
+                    TextCompression.wrap(dialogue.response().deflated()), dialogue.createTime());
+        };
+    }
+
+    /**
+     * 转换为存储格式，捕获的流式响应已经压缩过、并在捕获时按 maxLength 截断，直接包装
+     */
+    private static String resultToString(Object result, int maxLength) {
+        return result instanceof CapturedText captured
+                ? TextCompression.wrap(captured.deflated())
+                : TextCompression.encode(safeToString(result, maxLength));
+    }
+
+    /**
+     * 转换为不超过 maxLength 的字符串（-1 表示不限制）；数组超出长度后不再转换剩余的元素。
+     * 转换字符串失败时只影响该字段，不影响同一批的其他日志
+     */
+    private static String safeToString(Object value, int maxLength) {
+        try {
+            if (!(value instanceof Object[] array)) {
+                return truncate(String.valueOf(value), maxLength);
+            }
+            if (maxLength < 0) {
+                return Arrays.toString(array);
+            }
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < array.length && builder.length() <= maxLength; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(array[i]);
+            }
+            return truncate(builder.append(']').toString(), maxLength);
+        } catch (RuntimeException e) {
+            return "<toString failed: " + e.getClass().getSimpleName() + ">";
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (maxLength < 0 || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength) + "...(truncated)";
+    }
+
+    private static String toTitle(String question) {
+        return question.length() > TITLE_MAX_LENGTH ? question.substring(0, TITLE_MAX_LENGTH) + "..." : question;
+    }
+}
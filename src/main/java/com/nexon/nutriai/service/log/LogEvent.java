@@ -0,0 +1,36 @@
+package com.nexon.nutriai.service.log;
+
+import java.time.LocalDateTime;
+
+/**
+ * 日志事件
+ *
+ * 由 {@link com.nexon.nutriai.service.aop.LogAspect} 在请求线程中创建，放入 {@link LogBatchWriter} 的队列，
+ * 由写入线程批量落库。参数和返回值保留原始对象，转成字符串的开销留在写入线程；
+ * 流式响应以 {@link CapturedText} 的压缩形式排队。
+ */
+public sealed interface LogEvent {
+
+    /**
+     * 登录日志
+     */
+    record Login(String username, boolean success, String failureReason, String loginType,
+                 LocalDateTime loginTime) implements LogEvent {
+    }
+
+    /**
+     * 单次请求日志
+     *
+     * 流式请求的 result 为 {@link CapturedText}，捕获时已按 maxFieldLength 截断；maxFieldLength 为参数和返回值转换为字符串后的最大长度，-1 表示不限制
+     */
+    record Request(String methodName, Object[] args, Object result, String errorMessage, int executeTime,
+                   boolean success, LocalDateTime createTime, int maxFieldLength) implements LogEvent {
+    }
+
+    /**
+     * 一轮对话（用户问题和AI回答）
+     */
+    record Dialogue(String chatId, String phone, String question, CapturedText response, String methodName,
+                    LocalDateTime createTime) implements LogEvent {
+    }
+}
@@ -0,0 +1,345 @@
+package com.nexon.nutriai.service.log;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 日志追加写日志文件（journal）
+ *
+ * 由固定大小、内存映射的段文件组成，段文件名为该段起始的全局偏移量。
+ * 每条记录为 [长度, CRC32, 内容]；长度为 0 表示尚未写入，为 -1 表示本段结束、继续读下一段。
+ * 写入方追加若干条后调用一次 {@link #sync()} 统一刷盘，读取方只读到已刷盘的位置。
+ *
+ * 检查点保存已导入数据库的位置，先写临时文件并刷盘，再原子替换并刷新目录；检查点之前的段文件会被删除。
+ * 启动时从最后一段开头扫描到第一条无效记录，确定写入位置，写到一半的记录被清零丢弃。
+ * 每个 journal 目录有一个随机生成的 id，数据库中记录的偏移量按 id 区分，目录被清空重建后不会误用旧的偏移量。
+ *
+ * 只允许一个线程写入、一个线程读取。
+ */
+@Slf4j
+final class LogJournal {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String ID_FILE = "journal-id";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentNavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final CRC32 writeCrc = new CRC32();
+    private final CRC32 readCrc = new CRC32();
+
+    private long writeBase;
+    private MappedByteBuffer writeBuffer;
+    private int writePosition;
+    private int syncedPosition;
+
+    private volatile long syncedOffset;
+    private volatile long checkpoint;
+    private String id;
+
+    /**
+     * 读出的一条记录
+     *
+     * @param data 记录内容
+     * @param next 下一条记录的偏移量，导入这条记录后可以推进到的检查点
+     */
+    record Record(byte[] data, long next) {
+    }
+
+    /**
+     * 记录损坏或段文件缺失，无法从该偏移量继续读取，调用方可以用 {@link #skipSegment(long)} 跳过
+     */
+    static final class CorruptedException extends IllegalStateException {
+
+        CorruptedException(String message) {
+            super(message);
+        }
+    }
+
+    LogJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * 追加一条记录，调用 {@link #sync()} 之前对读取方不可见
+     *
+     * @param data 记录内容
+     * @param length 内容长度
+     */
+    void append(byte[] data, int length) throws IOException {
+        int recordSize = HEADER_SIZE + length;
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("journal record too large: " + length);
+        }
+        if (writePosition + recordSize + Integer.BYTES > segmentSize) {
+            writeBuffer.putInt(writePosition, END_OF_SEGMENT);
+            writePosition += Integer.BYTES;
+            force();
+            openSegment(writeBase + segmentSize);
+        }
+        writeCrc.reset();
+        writeCrc.update(data, 0, length);
+        writeBuffer.putInt(writePosition + Integer.BYTES, (int) writeCrc.getValue());
+        writeBuffer.put(writePosition + HEADER_SIZE, data, 0, length);
+        // 长度最后写，读取方看到非 0 长度时内容已经完整
+        writeBuffer.putInt(writePosition, length);
+        writePosition += recordSize;
+    }
+
+    /**
+     * 把上次同步以来追加的记录刷到磁盘，并对读取方可见
+     */
+    void sync() {
+        force();
+        syncedOffset = writeBase + writePosition;
+    }
+
+    /**
+     * 从指定位置读取已同步的记录
+     *
+     * 遇到损坏的记录或缺失的段时，已读出记录则先返回这些记录，否则抛出 {@link CorruptedException}。
+     *
+     * @param from 起始偏移量
+     * @param maxRecords 最多读取的条数
+     * @param out 读取的记录
+     * @return 下一条记录的偏移量
+     */
+    long read(long from, int maxRecords, List<Record> out) {
+        long offset = from;
+        long limit = syncedOffset;
+        while (out.size() < maxRecords && offset < limit) {
+            Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(offset);
+            if (segment == null || offset - segment.getKey() > segmentSize - Integer.BYTES) {
+                return corrupted(out, offset, "journal segment missing for offset " + offset);
+            }
+            MappedByteBuffer buffer = segment.getValue();
+            int position = (int) (offset - segment.getKey());
+            int length = buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                offset = segment.getKey() + segmentSize;
+                continue;
+            }
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                return corrupted(out, offset, "journal record corrupted at offset " + offset);
+            }
+            byte[] data = new byte[length];
+            buffer.get(position + HEADER_SIZE, data);
+            readCrc.reset();
+            readCrc.update(data);
+            if ((int) readCrc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                return corrupted(out, offset, "journal record corrupted at offset " + offset);
+            }
+            offset += HEADER_SIZE + length;
+            out.add(new Record(data, offset));
+        }
+        return offset;
+    }
+
+    private static long corrupted(List<Record> out, long offset, String message) {
+        if (out.isEmpty()) {
+            throw new CorruptedException(message);
+        }
+        return offset;
+    }
+
+    /**
+     * 跳过偏移量所在段的剩余部分，用于越过损坏的记录或缺失的段；
+     * 所在段是正在写入的段时只跳到已同步的位置，之后追加的记录仍然可以读取
+     *
+     * @param offset 无法读取的偏移量
+     * @return 继续读取的偏移量
+     */
+    long skipSegment(long offset) {
+        Long base = segments.floorKey(offset);
+        if (base == null) {
+            return segments.isEmpty() ? syncedOffset : segments.firstKey();
+        }
+        Long next = segments.higherKey(base);
+        return next != null ? next : syncedOffset;
+    }
+
+    /**
+     * 已同步的末尾偏移量
+     */
+    long syncedOffset() {
+        return syncedOffset;
+    }
+
+    /**
+     * journal 目录的 id
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * 已导入数据库的偏移量
+     */
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * 保存检查点，并删除已全部导入的段文件
+     *
+     * @param offset 已导入数据库的偏移量
+     */
+    void checkpoint(long offset) throws IOException {
+        writeDurably(CHECKPOINT_FILE, Long.toString(offset));
+        checkpoint = offset;
+        for (Long base : segments.headMap(segments.floorKey(offset)).keySet()) {
+            segments.remove(base);
+            Files.deleteIfExists(segmentPath(base));
+        }
+    }
+
+    /**
+     * 段文件个数
+     */
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void recover() throws IOException {
+        Path idFile = directory.resolve(ID_FILE);
+        if (Files.exists(idFile)) {
+            id = Files.readString(idFile, StandardCharsets.US_ASCII).trim();
+        } else {
+            id = UUID.randomUUID().toString();
+            writeDurably(ID_FILE, id);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (Files.size(file) != segmentSize) {
+                    throw new IllegalStateException("journal segment size mismatch: " + file
+                            + ", configured segment size " + segmentSize);
+                }
+                segments.put(base, map(file));
+            }
+        }
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        long savedCheckpoint = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim())
+                : segments.isEmpty() ? 0 : segments.firstKey();
+
+        if (segments.isEmpty()) {
+            openSegment(savedCheckpoint);
+        } else {
+            writeBase = segments.lastKey();
+            writeBuffer = segments.lastEntry().getValue();
+            writePosition = scanEnd(writeBuffer);
+            syncedPosition = writePosition;
+        }
+        syncedOffset = writeBase + writePosition;
+        checkpoint = Math.min(Math.max(savedCheckpoint, segments.firstKey()), syncedOffset);
+        if (checkpoint < syncedOffset) {
+            log.info("日志 journal 中有未导入的记录: {} 字节", syncedOffset - checkpoint);
+        }
+    }
+
+    /**
+     * 找到第一条无效记录的位置，并清零其后的内容，避免残留数据被误认为记录
+     */
+    private int scanEnd(MappedByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] data = new byte[length];
+            buffer.get(position + HEADER_SIZE, data);
+            crc.reset();
+            crc.update(data);
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        int i = position;
+        for (; i + Long.BYTES <= segmentSize; i += Long.BYTES) {
+            if (buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0);
+            }
+        }
+        for (; i < segmentSize; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        return position;
+    }
+
+    /**
+     * 写入临时文件并刷盘，原子替换后刷新目录，断电后要么是旧内容要么是新内容
+     */
+    private void writeDurably(String fileName, String content) throws IOException {
+        Path tmp = directory.resolve(fileName + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 部分平台（如 Windows）不能打开目录，只依赖原子替换
+            log.debug("刷新 journal 目录失败: {}", e.getMessage());
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        writeBase = base;
+        writeBuffer = map(segmentPath(base));
+        writePosition = 0;
+        syncedPosition = 0;
+        segments.put(base, writeBuffer);
+    }
+
+    private void force() {
+        if (writePosition > syncedPosition) {
+            writeBuffer.force(syncedPosition, writePosition - syncedPosition);
+            syncedPosition = writePosition;
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,142 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 日志切面副作用的专用执行器
+ *
+ * 流式响应结束时压缩捕获内容并提交日志，这部分工作放到独立的虚拟线程上执行，
+ * 不占用发出完成信号的线程（Netty 事件循环或模型客户端的线程），也不与 boundedElastic 上的请求处理争抢线程。
+ * 同时执行的任务数受 maxConcurrency 限制，超出时拒绝并计数，由调用方放弃该条日志，日志负载再高也不会无限堆积。
+ * 对话记录是业务数据，不能放弃，通过 {@link #executeRequired(Runnable)} 提交，超出上限时在调用线程上执行。
+ *
+ * 依赖 {@link LogBatchWriter}，关闭时先等待已提交的任务执行完，再停止写入器。
+ */
+@Slf4j
+@Component
+@DependsOn("logBatchWriter")
+public class LogSideEffectExecutor {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("log-side-effect-", 0).factory());
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public LogSideEffectExecutor(LogProperties logProperties) {
+        this.maxConcurrency = logProperties.sideEffects().maxConcurrency();
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * 执行可以放弃的副作用任务，不阻塞
+     *
+     * @param task 任务
+     * @param onRejected 超出并发上限或执行器已关闭时在调用线程上执行，用于释放任务持有的资源
+     */
+    public void execute(Runnable task, Runnable onRejected) {
+        if (!trySubmit(task)) {
+            reject(onRejected);
+        }
+    }
+
+    /**
+     * 执行不能放弃的副作用任务（如对话记录这类业务数据），从不拒绝
+     *
+     * 超出并发上限或执行器已关闭时直接在调用线程上执行，任务本身不能阻塞。
+     *
+     * @param task 任务
+     */
+    public void executeRequired(Runnable task) {
+        if (trySubmit(task)) {
+            return;
+        }
+        callerRunsCount.increment();
+        run(task);
+    }
+
+    /**
+     * 获取执行统计
+     *
+     * @return 统计快照
+     */
+    public Stats stats() {
+        return new Stats(maxConcurrency - permits.availablePermits(), maxConcurrency, submittedCount.sum(),
+                rejectedCount.sum(), callerRunsCount.sum(), failedCount.sum());
+    }
+
+    /**
+     * 执行统计
+     *
+     * @param active 正在执行的任务数
+     * @param maxConcurrency 并发上限
+     * @param submittedCount 已提交的任务数
+     * @param rejectedCount 被拒绝的任务数
+     * @param callerRunsCount 不能放弃、在调用线程上执行的任务数
+     * @param failedCount 执行失败的任务数
+     */
+    public record Stats(int active, int maxConcurrency, long submittedCount, long rejectedCount, long callerRunsCount,
+                        long failedCount) {
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("日志副作用任务未在关闭前执行完: active={}", maxConcurrency - permits.availablePermits());
+        }
+    }
+
+    private boolean trySubmit(Runnable task) {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(task);
+                } finally {
+                    permits.release();
+                }
+            });
+            submittedCount.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return false;
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            failedCount.increment();
+            log.error("日志副作用任务执行失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reject(Runnable onRejected) {
+        rejectedCount.increment();
+        try {
+            onRejected.run();
+        } catch (RuntimeException e) {
+            log.warn("释放被拒绝的日志副作用任务失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 流式响应捕获
+ *
+ * 为每个被记录的流创建 {@link CaptureBuffer}，并维护缓冲区共用的字节块池。
+ * 块池有上限，高峰期借出的块超过上限时归还的块直接丢弃，避免池本身长期占用内存。
+ */
+@Component
+public class ResponseCapture {
+
+    private final int chunkSize;
+    private final long headBytes;
+    private final long tailBytes;
+    private final int maxPooledChunks;
+
+    private final ConcurrentLinkedQueue<byte[]> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledChunks = new AtomicInteger();
+
+    public ResponseCapture(LogProperties logProperties) {
+        LogProperties.Capture capture = logProperties.capture();
+        this.chunkSize = (int) capture.chunkSize().toBytes();
+        this.headBytes = capture.headSize().toBytes();
+        this.tailBytes = capture.maxSize().toBytes() - headBytes;
+        this.maxPooledChunks = capture.maxPooledChunks();
+    }
+
+    /**
+     * 为一个流创建捕获缓冲区，块在第一次写入时才借用
+     *
+     * @return 捕获缓冲区
+     */
+    public CaptureBuffer open() {
+        return new CaptureBuffer(this, chunkSize, headBytes, tailBytes);
+    }
+
+    /**
+     * 为一个流创建捕获缓冲区，内容限制在 maxLength 字节以内
+     *
+     * 与其他字段的截断一致，只保留开头的 maxLength 字节，之后的内容省略并在末尾加省略标记。
+     * 按 UTF-8 字节计算，保留的字符数不会超过 maxLength。
+     *
+     * @param maxLength 最大字节数，-1 表示只受捕获上限限制
+     * @return 捕获缓冲区
+     */
+    public CaptureBuffer open(int maxLength) {
+        if (maxLength < 0 || maxLength >= headBytes + tailBytes) {
+            return open();
+        }
+        return new CaptureBuffer(this, chunkSize, maxLength, 0);
+    }
+
+    byte[] borrow() {
+        byte[] chunk = chunks.poll();
+        if (chunk == null) {
+            return new byte[chunkSize];
+        }
+        pooledChunks.decrementAndGet();
+        return chunk;
+    }
+
+    void giveBack(byte[] chunk) {
+        if (pooledChunks.incrementAndGet() <= maxPooledChunks) {
+            chunks.offer(chunk);
+        } else {
+            pooledChunks.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流式 AI 响应的按模型统计
+ *
+ * 首个片段耗时（TTFT，从订阅开始计算）和片段间隔记入滚动窗口的 {@link LatencyHistogram}；
+ * 流的个数、片段数、字符数和首片段到末片段的总时长为启动以来的累计值，用来计算平均片段数和吞吐量。
+ */
+@Component
+public class StreamMetrics {
+
+    private final long slotNanos;
+    private final int slotCount;
+    private final List<Duration> windows;
+    private final Map<String, ModelStats> models = new ConcurrentHashMap<>();
+
+    public StreamMetrics(LogProperties logProperties) {
+        LogProperties.Latency latency = logProperties.latency();
+        this.slotNanos = latency.slotDuration().toNanos();
+        this.windows = latency.windows();
+        long longestWindow = windows.stream().mapToLong(Duration::toNanos).max().orElse(slotNanos);
+        this.slotCount = (int) Math.max(1, (longestWindow + slotNanos - 1) / slotNanos);
+    }
+
+    /**
+     * 开始跟踪一个流，在订阅时调用
+     *
+     * @param model 模型名称
+     * @return 流的跟踪器
+     */
+    public Tracker start(String model) {
+        ModelStats stats = models.get(model);
+        if (stats == null) {
+            stats = models.computeIfAbsent(model, _ -> new ModelStats(slotNanos, slotCount));
+        }
+        return new Tracker(stats, System.nanoTime());
+    }
+
+    /**
+     * 按模型和窗口汇总
+     *
+     * @return 模型名称 -> (窗口 -> 统计)，按模型名称排序
+     */
+    public Map<String, Map<Duration, Snapshot>> snapshot() {
+        Map<String, Map<Duration, Snapshot>> result = new TreeMap<>();
+        models.forEach((model, stats) -> {
+            Map<Duration, Snapshot> byWindow = new TreeMap<>();
+            for (Duration window : windows) {
+                int windowSlots = (int) Math.max(1, window.toNanos() / slotNanos);
+                byWindow.put(window, new Snapshot(stats.firstChunk.snapshot(windowSlots),
+                        stats.chunkGap.snapshot(windowSlots), stats.streams.sum(), stats.chunks.sum(),
+                        stats.chars.sum(), stats.streamingNanos.sum()));
+            }
+            result.put(model, byWindow);
+        });
+        return result;
+    }
+
+    /**
+     * 模型的流式响应统计
+     *
+     * @param timeToFirstChunk 窗口内的首片段耗时分布（微秒）
+     * @param chunkGap 窗口内的片段间隔分布（微秒）
+     * @param streams 累计流个数（至少收到一个片段）
+     * @param chunks 累计片段数
+     * @param chars 累计字符数
+     * @param streamingNanos 累计的首片段到末片段时长
+     */
+    public record Snapshot(LatencyHistogram.Snapshot timeToFirstChunk, LatencyHistogram.Snapshot chunkGap,
+                           long streams, long chunks, long chars, long streamingNanos) {
+    }
+
+    /**
+     * 单个流的跟踪器
+     *
+     * Reactive Streams 保证同一个流的 onNext 串行发出，跟踪器本身不需要同步。
+     */
+    public static final class Tracker {
+
+        private final ModelStats stats;
+        private final long subscribedAt;
+        private long firstAt;
+        private long lastAt;
+        private long chunks;
+        private long chars;
+        private boolean finished;
+
+        private Tracker(ModelStats stats, long subscribedAt) {
+            this.stats = stats;
+            this.subscribedAt = subscribedAt;
+        }
+
+        /**
+         * 收到一个片段
+         *
+         * @param chunk 片段内容
+         */
+        public void onChunk(Object chunk) {
+            long now = System.nanoTime();
+            if (chunks == 0) {
+                firstAt = now;
+                stats.firstChunk.record(now - subscribedAt);
+            } else {
+                stats.chunkGap.record(now - lastAt);
+            }
+            lastAt = now;
+            chunks++;
+            if (chunk instanceof CharSequence text) {
+                chars += text.length();
+            }
+        }
+
+        /**
+         * 流结束（完成、失败或取消），只计入一次
+         */
+        public void onFinish() {
+            if (finished || chunks == 0) {
+                return;
+            }
+            finished = true;
+            stats.streams.increment();
+            stats.chunks.add(chunks);
+            stats.chars.add(chars);
+            stats.streamingNanos.add(lastAt - firstAt);
+        }
+    }
+
+    private static final class ModelStats {
+
+        private final LatencyHistogram firstChunk;
+        private final LatencyHistogram chunkGap;
+        private final LongAdder streams = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder chars = new LongAdder();
+        private final LongAdder streamingNanos = new LongAdder();
+
+        private ModelStats(long slotNanos, int slotCount) {
+            this.firstChunk = new LatencyHistogram(slotNanos, slotCount);
+            this.chunkGap = new LatencyHistogram(slotNanos, slotCount);
+        }
+    }
+}
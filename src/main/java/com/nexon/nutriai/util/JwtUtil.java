@@ -88,6 +88,16 @@ public class JwtUtil {
                 .getSubject();
     }
 
+    /**
+     * 读取令牌的过期时间，不校验签名，仅用于已校验通过的令牌
+     *
+     * @return 过期时间戳（毫秒），令牌未设置过期时间时返回 0
+     */
+    public long getExpiresAtFromToken(String token) {
+        Date expiresAt = JWT.decode(token).getExpiresAt();
+        return expiresAt == null ? 0 : expiresAt.getTime();
+    }
+
     public boolean isRefreshToken(String token) {
         DecodedJWT decodedJWT = JWT.require(algorithm).build().verify(token);
         return !"access".equals(decodedJWT.getClaim("type").asString());
@@ -0,0 +1,69 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 按访问顺序排列的侵入式双向链表
+ *
+ * 链表指针保存在 {@link CacheNode} 上，入队、出队和移动均为 O(1) 且不产生额外对象。
+ * 非线程安全，调用方需在淘汰锁内访问。
+ */
+final class AccessOrderDeque<K, V> {
+
+    private CacheNode<K, V> head;
+    private CacheNode<K, V> tail;
+
+    CacheNode<K, V> peekFirst() {
+        return head;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    void addLast(CacheNode<K, V> node) {
+        node.prevInAccessOrder = tail;
+        node.nextInAccessOrder = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.nextInAccessOrder = node;
+        }
+        tail = node;
+    }
+
+    void remove(CacheNode<K, V> node) {
+        CacheNode<K, V> prev = node.prevInAccessOrder;
+        CacheNode<K, V> next = node.nextInAccessOrder;
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.nextInAccessOrder = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prevInAccessOrder = prev;
+        }
+        node.prevInAccessOrder = null;
+        node.nextInAccessOrder = null;
+    }
+
+    void moveToBack(CacheNode<K, V> node) {
+        if (node != tail) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    CacheNode<K, V> pollFirst() {
+        CacheNode<K, V> first = head;
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    void clear() {
+        head = null;
+        tail = null;
+    }
+}
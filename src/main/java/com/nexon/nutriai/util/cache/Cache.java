@@ -1,5 +1,8 @@
 package com.nexon.nutriai.util.cache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 public interface Cache<K, V> {
     
     /**
@@ -8,6 +11,48 @@ public interface Cache<K, V> {
      * @return 缓存值，不存在返回null
      */
     V get(K key);
+
+    /**
+     * 获取缓存值，不存在时调用loader加载并写入缓存
+     *
+     * 同一个键的并发加载合并为一次，其他调用方等待并共享该次加载的结果或异常。
+     * loader返回null时不写入缓存。loader内不可再加载同一个键。
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * 获取缓存值，不存在时返回null，不触发同步加载
+     *
+     * 命中的值已超过刷新时间时仍返回旧值，同时在后台调用loader重新加载。
+     * @param key 缓存键
+     * @param loader 后台刷新使用的加载函数
+     * @return 缓存值，不存在返回null
+     */
+    V getIfPresent(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * 加载缓存值，已存在时直接返回，不记录命中或未命中
+     *
+     * 供已经调用过 {@link #getIfPresent(Object, Function)} 且未命中的调用方使用，避免同一次读取被统计两次。
+     * 与 {@link #get(Object, Function)} 共享同一组进行中的加载。
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    V load(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * 异步获取缓存值，不存在时在加载线程池中调用loader加载并写入缓存
+     *
+     * 与 {@link #get(Object, Function)} 共享同一组进行中的加载，命中时返回已完成的Future。
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值的Future，加载结果为null时以null完成
+     */
+    CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader);
     
     /**
      * 设置缓存值
@@ -48,4 +93,10 @@ public interface Cache<K, V> {
      * @return 缓存项数量
      */
     int size();
+    
+    /**
+     * 获取缓存统计快照
+     * @return 统计信息
+     */
+    CacheStats stats();
 }
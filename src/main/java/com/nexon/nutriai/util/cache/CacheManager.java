@@ -0,0 +1,182 @@
+package com.nexon.nutriai.util.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存管理器
+ *
+ * 按名称管理多个相互独立的缓存区域，每个区域有自己的存储、容量、过期策略和清理任务，
+ * 某一类业务的突发流量只会淘汰本区域的条目，不会挤掉其他区域的热点数据。
+ * 未配置的区域按默认配置创建；键为手机号的区域使用 {@link PhoneKeyedCache}。
+ *
+ * 配置了快照目录时，标记为持久化的区域在创建时从快照恢复，在 {@link #shutdown()} 时写回快照（见 {@link CacheSnapshot}）。
+ */
+@Slf4j
+public class CacheManager {
+
+    private final Map<String, CacheSpec> specs;
+    private final CacheSpec defaultSpec;
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, CacheSnapshot<?, ?>> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 快照目录，为null时不持久化
+     */
+    private final Path snapshotDirectory;
+
+    /**
+     * @param specs 各区域配置
+     * @param defaultSpec 未配置区域使用的默认配置
+     */
+    public CacheManager(Map<String, CacheSpec> specs, CacheSpec defaultSpec) {
+        this(specs, defaultSpec, null);
+    }
+
+    /**
+     * @param specs 各区域配置
+     * @param defaultSpec 未配置区域使用的默认配置
+     * @param snapshotDirectory 快照目录，为null时不持久化
+     */
+    public CacheManager(Map<String, CacheSpec> specs, CacheSpec defaultSpec, Path snapshotDirectory) {
+        this.specs = Map.copyOf(specs);
+        this.defaultSpec = defaultSpec;
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * 获取指定名称的缓存区域，不存在时按配置创建
+     *
+     * 同一区域的键值类型由调用方保证一致。
+     *
+     * @param name 区域名称
+     * @return 缓存区域
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String name) {
+        return (Cache<K, V>) caches.computeIfAbsent(name, n -> createCache(specs.getOrDefault(n, defaultSpec)));
+    }
+
+    /**
+     * 获取指定名称的缓存区域，区域配置为持久化时在首次创建后从快照恢复
+     *
+     * @param name 区域名称
+     * @param keyType 键类型，用于反序列化快照
+     * @param valueType 值类型，用于反序列化快照
+     * @return 缓存区域
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String name, Class<K> keyType, Class<V> valueType) {
+        return (Cache<K, V>) caches.computeIfAbsent(name, n -> {
+            CacheSpec spec = specs.getOrDefault(n, defaultSpec);
+            Cache<K, V> cache = (Cache<K, V>) createCache(spec);
+            if (spec.persistent() && snapshotDirectory != null && cache instanceof SnapshotSupport<?, ?>) {
+                CacheSnapshot<K, V> snapshot = new CacheSnapshot<>(snapshotDirectory.resolve(n + ".snapshot"), keyType, valueType);
+                snapshots.put(n, snapshot);
+                restore(n, snapshot, (SnapshotSupport<K, V>) cache);
+            }
+            return cache;
+        });
+    }
+
+    /**
+     * 获取区域配置，未配置的区域返回默认配置
+     *
+     * @param name 区域名称
+     * @return 区域配置
+     */
+    public CacheSpec getSpec(String name) {
+        return specs.getOrDefault(name, defaultSpec);
+    }
+
+    /**
+     * 获取已创建的区域名称
+     *
+     * @return 区域名称集合
+     */
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 获取已创建区域的当前条目数
+     *
+     * @param name 区域名称
+     * @return 条目数，区域不存在时返回 0
+     */
+    public int size(String name) {
+        Cache<?, ?> cache = caches.get(name);
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * 获取已创建区域的统计快照
+     *
+     * @return 区域名称到统计信息的映射，按名称排序
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+
+    /**
+     * 持久化区域写入快照，然后关闭所有区域的清理任务
+     */
+    public void shutdown() {
+        snapshots.forEach((name, snapshot) -> save(name, snapshot, caches.get(name)));
+        for (Cache<?, ?> cache : caches.values()) {
+            if (cache instanceof ManagedCache managedCache) {
+                managedCache.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 各区域按价值从低到高淘汰一定比例的条目，由 {@link MemoryPressureMonitor} 在内存压力过高时调用
+     *
+     * @param fraction 淘汰比例
+     * @return 淘汰的条目总数
+     */
+    public int shed(double fraction) {
+        int shed = 0;
+        for (Cache<?, ?> cache : caches.values()) {
+            if (cache instanceof ManagedCache managedCache) {
+                shed += managedCache.shed(fraction);
+            }
+        }
+        return shed;
+    }
+
+    private static <K, V> void restore(String name, CacheSnapshot<K, V> snapshot, SnapshotSupport<K, V> cache) {
+        long startTime = System.currentTimeMillis();
+        try {
+            int count = snapshot.load(cache);
+            log.info("缓存区域 {} 从快照恢复 {} 条，耗时 {}ms", name, count, System.currentTimeMillis() - startTime);
+        } catch (IOException | RuntimeException e) {
+            log.warn("缓存区域 {} 读取快照失败，已恢复的条目保留", name, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void save(String name, CacheSnapshot<K, V> snapshot, Cache<?, ?> cache) {
+        long startTime = System.currentTimeMillis();
+        try {
+            int count = snapshot.save((SnapshotSupport<K, V>) cache);
+            log.info("缓存区域 {} 写入快照 {} 条，耗时 {}ms", name, count, System.currentTimeMillis() - startTime);
+        } catch (IOException | RuntimeException e) {
+            log.warn("缓存区域 {} 写入快照失败", name, e);
+        }
+    }
+
+    private static Cache<?, ?> createCache(CacheSpec spec) {
+        return spec.phoneKeyed() ? new PhoneKeyedCache<>(spec) : new InMemoryCache<>(spec);
+    }
+}
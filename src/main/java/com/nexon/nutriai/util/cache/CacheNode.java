@@ -0,0 +1,50 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 缓存条目节点
+ *
+ * 除键值和过期时间外，还携带淘汰策略使用的访问顺序链表指针和时间轮的槽位链表指针。
+ * 链表指针与所在队列只在淘汰锁内读写。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+final class CacheNode<K, V> {
+
+    static final int WINDOW = 0;
+    static final int PROBATION = 1;
+    static final int PROTECTED = 2;
+    static final int RETIRED = -1;
+
+    final K key;
+    final V value;
+    final int weight;
+
+    /**
+     * 写入时间（毫秒时间戳），用于判断是否需要后台刷新
+     */
+    final long writeTime;
+
+    /**
+     * 过期时间（毫秒时间戳），0 表示永不过期
+     */
+    final long expireTime;
+
+    int queueType = WINDOW;
+    CacheNode<K, V> prevInAccessOrder;
+    CacheNode<K, V> nextInAccessOrder;
+    CacheNode<K, V> prevInTimer;
+    CacheNode<K, V> nextInTimer;
+
+    CacheNode(K key, V value, int weight, long writeTime, long expireTime) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = writeTime;
+        this.expireTime = expireTime;
+    }
+
+    boolean isExpired(long now) {
+        return expireTime != 0 && now > expireTime;
+    }
+}
@@ -0,0 +1,141 @@
+package com.nexon.nutriai.util.cache;
+
+import com.alibaba.fastjson2.JSONB;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 缓存区域快照
+ *
+ * 关闭时把区域内未过期的条目写入本地文件，启动时读回，重启后不必逐个回源数据库。
+ * 键值使用 fastjson2 的 JSONB 二进制格式序列化，整个文件再经 GZIP 压缩；
+ * 每个条目保存绝对的写入时间与过期时间，恢复后剩余的过期时间和刷新时间不变，读回时已过期的条目直接丢弃。
+ *
+ * 文件格式：魔数、版本号，之后每个条目为 [1, 写入时间, 过期时间, 键长度, 键, 值长度, 值]，以 0 结尾。
+ * 先写临时文件再原子替换，写到一半退出不会留下损坏的快照。文件系统支持 POSIX 权限时，快照只对属主可读写。
+ */
+@Slf4j
+final class CacheSnapshot<K, V> {
+
+    private static final int MAGIC = 0x4E435348;
+    /**
+     * 版本 1 的 user-info 快照包含密码哈希和 openId，不再读取
+     */
+    private static final int VERSION = 2;
+
+    private static final FileAttribute<Set<PosixFilePermission>> OWNER_ONLY =
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+
+    private final Path file;
+    private final Class<K> keyType;
+    private final Class<V> valueType;
+
+    CacheSnapshot(Path file, Class<K> keyType, Class<V> valueType) {
+        this.file = file;
+        this.keyType = keyType;
+        this.valueType = valueType;
+    }
+
+    /**
+     * 写入快照
+     *
+     * @return 写入的条目数
+     */
+    int save(SnapshotSupport<K, V> cache) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tmp, OWNER_ONLY);
+        }
+        int[] count = {0};
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            IOException[] failure = {null};
+            cache.forEachEntry((key, value, writeTime, expireTime) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    out.writeBoolean(true);
+                    out.writeLong(writeTime);
+                    out.writeLong(expireTime);
+                    writeBytes(out, JSONB.toBytes(key));
+                    writeBytes(out, JSONB.toBytes(value));
+                    count[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.writeBoolean(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * 读取快照，文件不存在时不做任何操作；读到损坏的数据时保留已恢复的条目并停止
+     *
+     * @return 恢复的条目数（不含已过期的条目）
+     */
+    int load(SnapshotSupport<K, V> cache) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int count = 0;
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("删除不兼容的缓存快照: {}", file);
+                Files.deleteIfExists(file);
+                return 0;
+            }
+            while (in.readBoolean()) {
+                long writeTime = in.readLong();
+                long expireTime = in.readLong();
+                byte[] keyBytes = readBytes(in);
+                byte[] valueBytes = readBytes(in);
+                if (expireTime != 0 && now > expireTime) {
+                    continue;
+                }
+                cache.restore(JSONB.parseObject(keyBytes, keyType), JSONB.parseObject(valueBytes, valueType),
+                        writeTime, expireTime);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("corrupted snapshot entry");
+        }
+        return in.readNBytes(length);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 缓存区域配置
+ *
+ * @param maximumSize 最大条目数
+ * @param expireAfterWrite 写入后默认过期时间（毫秒），0 表示不过期；显式指定过期时间的写入不受影响
+ * @param refreshAfterWrite 写入后超过该时间（毫秒）的条目在带加载函数读取时后台刷新，0 表示不刷新
+ * @param phoneKeyed 键是否为手机号，是则使用 {@link PhoneKeyedCache}
+ * @param persistent 是否在关闭时写入快照、启动时恢复
+ */
+public record CacheSpec(long maximumSize, long expireAfterWrite, long refreshAfterWrite,
+                        boolean phoneKeyed, boolean persistent) {
+
+    public CacheSpec {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        if (expireAfterWrite < 0) {
+            throw new IllegalArgumentException("expireAfterWrite must not be negative");
+        }
+        if (refreshAfterWrite < 0) {
+            throw new IllegalArgumentException("refreshAfterWrite must not be negative");
+        }
+        if (refreshAfterWrite > 0 && expireAfterWrite > 0 && refreshAfterWrite >= expireAfterWrite) {
+            throw new IllegalArgumentException("refreshAfterWrite must be less than expireAfterWrite");
+        }
+    }
+}
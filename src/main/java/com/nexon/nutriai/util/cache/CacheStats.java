@@ -0,0 +1,46 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 缓存统计快照
+ *
+ * @param hitCount 命中次数
+ * @param missCount 未命中次数
+ * @param loadSuccessCount 加载成功次数
+ * @param loadFailureCount 加载失败次数（异常或加载结果为null）
+ * @param totalLoadTime 加载总耗时（纳秒）
+ * @param evictionCount 因容量淘汰的条目数
+ * @param expiryCount 因过期移除的条目数
+ * @param pressureEvictionCount 因堆内存压力淘汰的条目数
+ */
+public record CacheStats(long hitCount, long missCount,
+                         long loadSuccessCount, long loadFailureCount, long totalLoadTime,
+                         long evictionCount, long expiryCount, long pressureEvictionCount) {
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public double hitRate() {
+        long requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * 合并两份统计
+     */
+    public CacheStats plus(CacheStats other) {
+        return new CacheStats(hitCount + other.hitCount, missCount + other.missCount,
+                loadSuccessCount + other.loadSuccessCount, loadFailureCount + other.loadFailureCount,
+                totalLoadTime + other.totalLoadTime,
+                evictionCount + other.evictionCount, expiryCount + other.expiryCount,
+                pressureEvictionCount + other.pressureEvictionCount);
+    }
+
+    /**
+     * 平均每次加载耗时（纳秒）
+     */
+    public double averageLoadPenalty() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+}
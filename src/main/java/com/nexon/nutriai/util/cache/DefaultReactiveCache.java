@@ -0,0 +1,69 @@
+package com.nexon.nutriai.util.cache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.function.Function;
+
+/**
+ * 响应式缓存默认实现
+ *
+ * 包装一个同步 {@link Cache}：读写内存的操作直接在订阅线程上完成，
+ * 只有需要调用加载函数的未命中请求才通过 subscribeOn 切换到加载调度器。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class DefaultReactiveCache<K, V> implements ReactiveCache<K, V> {
+
+    private final Cache<K, V> delegate;
+    private final Scheduler loaderScheduler;
+
+    /**
+     * @param delegate 底层同步缓存
+     * @param loaderScheduler 执行加载函数的调度器
+     */
+    public DefaultReactiveCache(Cache<K, V> delegate, Scheduler loaderScheduler) {
+        this.delegate = delegate;
+        this.loaderScheduler = loaderScheduler;
+    }
+
+    @Override
+    public Mono<V> get(K key) {
+        return Mono.fromSupplier(() -> delegate.get(key));
+    }
+
+    @Override
+    public Mono<V> get(K key, Function<? super K, ? extends V> loader) {
+        return Mono.defer(() -> {
+            // 命中时直接返回，超过刷新时间的条目由同步缓存在后台刷新
+            V value = delegate.getIfPresent(key, loader);
+            if (value != null) {
+                return Mono.just(value);
+            }
+            // 未命中：在加载调度器上走同步缓存的single-flight加载，未命中已在上面统计过
+            return Mono.fromCallable(() -> delegate.load(key, loader))
+                    .subscribeOn(loaderScheduler);
+        });
+    }
+
+    @Override
+    public Mono<Void> put(K key, V value) {
+        return Mono.fromRunnable(() -> delegate.put(key, value));
+    }
+
+    @Override
+    public Mono<Void> put(K key, V value, long ttl) {
+        return Mono.fromRunnable(() -> delegate.put(key, value, ttl));
+    }
+
+    @Override
+    public Mono<Boolean> remove(K key) {
+        return Mono.fromSupplier(() -> delegate.remove(key));
+    }
+
+    @Override
+    public Cache<K, V> synchronous() {
+        return delegate;
+    }
+}
@@ -1,111 +1,315 @@
 package com.nexon.nutriai.util.cache;
 
-import org.springframework.context.annotation.Primary;
-import org.springframework.stereotype.Component;
-
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * 内存缓存实现类
- * 
+ *
  * 基于ConcurrentHashMap实现的内存缓存，支持过期时间设置和自动清理。
- * 使用ScheduledExecutorService定期清理过期缓存项。
- * 
+ * 带过期时间的条目挂在分层时间轮（见 {@link TimerWheel}）上，后台任务每秒推进一次时间轮，
+ * 只处理到期的时间槽，过期条目在到期后约 1 秒内被回收，开销与缓存总量无关。
+ *
+ * 支持两种模式：
+ * 1. 无界模式：不限制容量，条目只会因过期或手动删除而移除
+ * 2. 有界模式：按条目数或权重之和限制容量，超出时按 W-TinyLFU 策略淘汰（见 {@link TinyLfuPolicy}），
+ *    扫描型流量（如大量一次性登录）不会挤掉高频访问的热点数据
+ *
+ * 写操作在淘汰锁内同时更新存储、时间轮与淘汰策略；读操作无锁，命中记录在锁空闲时才写入策略，
+ * 锁竞争时直接丢弃该次访问记录，频率统计本身是近似值，丢弃少量记录不影响淘汰效果。
+ *
+ * 带加载函数的读取对同一个键只保留一个进行中的加载（single-flight），
+ * 缓存未命中时的并发请求共享同一次加载，避免击穿到数据库。
+ *
+ * 配置了刷新时间时，带加载函数的读取遇到超过刷新时间（软过期）的条目会先返回旧值，
+ * 再在后台重新加载，只有超过过期时间（硬过期）的条目才需要调用方同步等待加载。
+ *
+ * 命中、未命中、加载耗时、淘汰与过期次数记录在 {@link StatsCounter} 中，可通过 {@link #stats()} 获取。
+ *
+ * 业务代码通过 {@link CacheManager} 按区域获取实例，每个区域独立配置容量和默认过期时间。
+ *
  * @param <K> 键类型
  * @param <V> 值类型
  */
-@Component
-@Primary
-public class InMemoryCache<K, V> implements Cache<K, V> {
+public class InMemoryCache<K, V> implements Cache<K, V>, SnapshotSupport<K, V>, ManagedCache {
+
+    /**
+     * 时间轮推进间隔（毫秒），与时间轮最细一层的槽宽一致
+     */
+    private static final long EXPIRY_TICK_MILLIS = 1000;
+
+    private static final ThreadFactory EXPIRY_THREAD_FACTORY = Thread.ofPlatform()
+            .name("cache-expiry-", 0)
+            .daemon(true)
+            .factory();
+
+    /**
+     * 异步加载默认使用虚拟线程执行，加载函数通常是阻塞的数据库查询
+     */
+    private static final Executor DEFAULT_LOADER_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<K, CacheNode<K, V>> cache = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loadingFutures = new ConcurrentHashMap<>();
+    private final Executor loaderExecutor = DEFAULT_LOADER_EXECUTOR;
+    /**
+     * 推进时间轮的线程，为null时在写入时顺带推进
+     */
+    private final ScheduledExecutorService cleanupExecutor;
+    private final TimerWheel<K, V> timerWheel = new TimerWheel<>(System.currentTimeMillis());
 
-    private final Map<K, CacheEntry<V>> cache = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupExecutor = Executors.newScheduledThreadPool(1);
+    /**
+     * 淘汰策略，无界模式下为null
+     */
+    private final TinyLfuPolicy<K, V> policy;
+    private final Weigher<? super K, ? super V> weigher;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final StatsCounter statsCounter = new StatsCounter();
+
+    /**
+     * 未指定过期时间的写入使用的默认过期时间（毫秒），0 表示不过期
+     */
+    private final long expireAfterWrite;
 
     /**
-     * 构造函数
-     * 
-     * 初始化缓存并启动定期清理过期缓存的任务。
+     * 后台刷新时间（毫秒），0 表示不刷新
+     */
+    private final long refreshAfterWrite;
+
+    /**
+     * 构造函数（无界模式）
+     *
+     * 初始化缓存并启动推进时间轮的任务。
      */
     public InMemoryCache() {
+        this.policy = null;
+        this.weigher = Weigher.singleton();
+        this.expireAfterWrite = 0;
+        this.refreshAfterWrite = 0;
         // 启动定期清理过期缓存的任务
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredEntries, 60, 60, TimeUnit.SECONDS);
+        this.cleanupExecutor = scheduleExpiry();
+    }
+
+    /**
+     * 构造函数（有界模式，按条目数限制）
+     *
+     * @param maximumSize 最大条目数
+     */
+    public InMemoryCache(long maximumSize) {
+        this(maximumSize, Weigher.singleton());
+    }
+
+    /**
+     * 构造函数（有界模式，按区域配置）
+     *
+     * @param spec 区域配置
+     */
+    public InMemoryCache(CacheSpec spec) {
+        this(spec.maximumSize(), Weigher.singleton(), spec.expireAfterWrite(), spec.refreshAfterWrite(), true);
+    }
+
+    /**
+     * 不启动清理线程的缓存，时间轮在写入时推进，已过期的条目在读取、写入或淘汰时移除
+     *
+     * 用于条目很少、附属于其他缓存的场景，如 {@link PhoneKeyedCache} 的兜底缓存。
+     *
+     * @param spec 区域配置
+     */
+    static <K, V> InMemoryCache<K, V> withoutExpiryThread(CacheSpec spec) {
+        return new InMemoryCache<>(spec.maximumSize(), Weigher.singleton(), spec.expireAfterWrite(),
+                spec.refreshAfterWrite(), false);
+    }
+
+    /**
+     * 构造函数（有界模式，按权重之和限制）
+     *
+     * @param maximumWeight 最大权重
+     * @param weigher 条目权重计算器
+     */
+    public InMemoryCache(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+        this(maximumWeight, weigher, 0, 0, true);
+    }
+
+    private InMemoryCache(long maximumWeight, Weigher<? super K, ? super V> weigher,
+                          long expireAfterWrite, long refreshAfterWrite, boolean expiryThread) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight must not be negative");
+        }
+        this.policy = new TinyLfuPolicy<>(maximumWeight, maximumWeight);
+        this.weigher = weigher;
+        this.expireAfterWrite = expireAfterWrite;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.cleanupExecutor = expiryThread ? scheduleExpiry() : null;
     }
 
     /**
      * 获取缓存值
-     * 
+     *
      * 根据键获取缓存值，如果键不存在或已过期则返回null。
-     * 
+     *
      * @param key 缓存键
      * @return 缓存值，不存在或过期返回null
      */
     @Override
     public V get(K key) {
-        CacheEntry<V> entry = cache.get(key);
-        if (entry == null) {
-            return null;
+        CacheNode<K, V> node = lookup(key);
+        recordRead(node);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * 获取缓存值，不存在时加载
+     *
+     * 未命中时抢占该键的加载权，抢到的线程执行loader，其余线程等待同一个Future。
+     * 命中已超过刷新时间的条目时返回旧值并在后台刷新。
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key, loader);
+        if (value != null) {
+            return value;
         }
+        return load(key, loader);
+    }
 
-        if (entry.isExpired()) {
-            cache.remove(key);
-            return null;
+    /**
+     * 加载缓存值，抢占该键的加载权，抢到的线程执行loader，其余线程等待同一个Future
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    @Override
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loadingFutures.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        load(key, loader, future);
+        return join(future);
+    }
+
+    /**
+     * 异步获取缓存值，不存在时在加载线程池中加载
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值的Future
+     */
+    @Override
+    public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key, loader);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
         }
 
-        return entry.value();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loadingFutures.putIfAbsent(key, future);
+        if (inFlight != null) {
+            // 返回副本，调用方取消或完成副本不影响其他等待者
+            return inFlight.copy();
+        }
+        try {
+            loaderExecutor.execute(() -> load(key, loader, future));
+        } catch (RejectedExecutionException e) {
+            loadingFutures.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future.copy();
+    }
+
+    /**
+     * 获取缓存值，命中已超过刷新时间的条目时在后台刷新
+     *
+     * @param key 缓存键
+     * @param loader 后台刷新使用的加载函数
+     * @return 缓存值，不存在或过期返回null
+     */
+    @Override
+    public V getIfPresent(K key, Function<? super K, ? extends V> loader) {
+        CacheNode<K, V> node = lookup(key);
+        recordRead(node);
+        if (node == null) {
+            return null;
+        }
+        refreshIfNeeded(node, loader);
+        return node.value;
     }
 
     /**
-     * 存储缓存值（无过期时间）
-     * 
+     * 存储缓存值（使用默认过期时间，未配置时不过期）
+     *
      * @param key 缓存键
      * @param value 缓存值
      */
     @Override
     public void put(K key, V value) {
-        cache.put(key, new CacheEntry<>(value));
+        long now = System.currentTimeMillis();
+        putNode(key, value, now, expireAfterWrite > 0 ? now + expireAfterWrite : 0);
     }
 
     /**
      * 存储缓存值（指定过期时间）
-     * 
+     *
      * @param key 缓存键
      * @param value 缓存值
      * @param ttl 过期时间（毫秒）
      */
     @Override
     public void put(K key, V value, long ttl) {
-        cache.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttl));
+        long now = System.currentTimeMillis();
+        putNode(key, value, now, now + ttl);
     }
 
     /**
      * 移除缓存项
-     * 
+     *
      * @param key 缓存键
      * @return 是否成功移除
      */
     @Override
     public boolean remove(K key) {
-        return cache.remove(key) != null;
+        evictionLock.lock();
+        try {
+            CacheNode<K, V> node = cache.remove(key);
+            if (node != null) {
+                detach(node);
+            }
+            return node != null;
+        } finally {
+            evictionLock.unlock();
+        }
     }
 
     /**
      * 检查缓存键是否存在
-     * 
+     *
      * @param key 缓存键
      * @return 键是否存在
      */
     @Override
     public boolean containsKey(K key) {
-        CacheEntry<V> entry = cache.get(key);
-        if (entry != null && entry.isExpired()) {
-            cache.remove(key);
+        CacheNode<K, V> node = cache.get(key);
+        if (node != null && node.isExpired(System.currentTimeMillis())) {
+            expireNode(node);
             return false;
         }
-        return entry != null;
+        return node != null;
     }
 
     /**
@@ -113,46 +317,387 @@ public class InMemoryCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void clear() {
-        cache.clear();
+        evictionLock.lock();
+        try {
+            cache.clear();
+            timerWheel.clear();
+            if (policy != null) {
+                policy.clear();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
     }
 
     /**
      * 获取缓存大小
-     * 
+     *
+     * O(1) 操作，不再扫描全表。已到期但时间轮尚未推进到的条目（最多约 1 秒）仍计入其中。
+     *
      * @return 缓存项数量
      */
     @Override
     public int size() {
-        cleanupExpiredEntries(); // 先清理过期项再返回大小
         return cache.size();
     }
 
+    /**
+     * 获取缓存统计快照
+     *
+     * @return 统计信息
+     */
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    @Override
+    public void forEachEntry(EntryConsumer<K, V> consumer) {
+        long now = System.currentTimeMillis();
+        for (CacheNode<K, V> node : cache.values()) {
+            if (!node.isExpired(now)) {
+                consumer.accept(node.key, node.value, node.writeTime, node.expireTime);
+            }
+        }
+    }
+
+    @Override
+    public void restore(K key, V value, long writeTime, long expireTime) {
+        if (expireTime != 0 && System.currentTimeMillis() > expireTime) {
+            return;
+        }
+        putNode(key, value, writeTime, expireTime);
+    }
+
+    /**
+     * 读取未过期的条目，不记录统计
+     */
+    private CacheNode<K, V> lookup(K key) {
+        CacheNode<K, V> node = cache.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        if (node.isExpired(System.currentTimeMillis())) {
+            expireNode(node);
+            return null;
+        }
+
+        afterRead(node);
+        return node;
+    }
+
+    private void recordRead(CacheNode<K, V> node) {
+        if (node == null) {
+            statsCounter.recordMiss();
+        } else {
+            statsCounter.recordHit();
+        }
+    }
+
+    /**
+     * 条目超过刷新时间时抢占该键的加载权，在加载线程池中重新加载；已有进行中的加载时不重复刷新
+     */
+    private void refreshIfNeeded(CacheNode<K, V> node, Function<? super K, ? extends V> loader) {
+        if (refreshAfterWrite == 0 || System.currentTimeMillis() - node.writeTime < refreshAfterWrite) {
+            return;
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (loadingFutures.putIfAbsent(node.key, future) != null) {
+            return;
+        }
+        try {
+            loaderExecutor.execute(() -> reload(node, loader, future));
+        } catch (RejectedExecutionException e) {
+            loadingFutures.remove(node.key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 后台刷新：只有在刷新期间条目没有被覆盖或删除时才写入新值，避免旧数据覆盖刚写入的更新
+     *
+     * 加载结果为null或加载失败时保留旧值，旧值到达过期时间后正常移除。
+     */
+    private void reload(CacheNode<K, V> node, Function<? super K, ? extends V> loader, CompletableFuture<V> future) {
+        long startTime = System.nanoTime();
+        try {
+            V value = loader.apply(node.key);
+            if (value != null) {
+                statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+                replaceNode(node, value);
+            } else {
+                statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            }
+            future.complete(value != null ? value : node.value);
+        } catch (Throwable t) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            future.complete(node.value);
+        } finally {
+            loadingFutures.remove(node.key, future);
+        }
+    }
+
+    /**
+     * 执行加载并完成Future，无论成功失败都释放该键的加载权
+     *
+     * 加载期间该键被写入新值时不覆盖，返回新写入的值，避免加载开始前读到的旧数据覆盖更新。
+     */
+    private void load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> future) {
+        long startTime = System.nanoTime();
+        boolean loaded = false;
+        try {
+            // 拿到加载权后再查一次，上一次加载可能刚好写入缓存
+            CacheNode<K, V> current = lookup(key);
+            V value = current == null ? null : current.value;
+            if (value == null) {
+                // 通常为null，也可能是时间轮尚未清理的过期条目
+                CacheNode<K, V> expected = cache.get(key);
+                loaded = true;
+                value = loader.apply(key);
+                if (value != null) {
+                    value = installLoaded(key, expected, value);
+                    statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+                } else {
+                    statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+                }
+            }
+            future.complete(value);
+        } catch (Throwable t) {
+            if (loaded) {
+                statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            }
+            future.completeExceptionally(t);
+        } finally {
+            loadingFutures.remove(key, future);
+        }
+    }
+
+    /**
+     * 等待加载结果，加载异常原样抛出
+     */
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 写入条目，有界模式下同时更新淘汰策略并淘汰超出容量的条目
+     */
+    private void putNode(K key, V value, long writeTime, long expireTime) {
+        int weight = weigh(key, value);
+        evictionLock.lock();
+        try {
+            CacheNode<K, V> node = new CacheNode<>(key, value, weight, writeTime, expireTime);
+            CacheNode<K, V> old = cache.put(key, node);
+            if (old != null) {
+                detach(old);
+            }
+            addNode(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 写入加载结果，加载期间该键已被写入其他条目时放弃
+     *
+     * @param expected 加载开始时该键的条目，不存在时为null
+     * @return 缓存中的值：写入成功时为加载结果，否则为加载期间写入的值
+     */
+    private V installLoaded(K key, CacheNode<K, V> expected, V value) {
+        int weight = weigh(key, value);
+        long now = System.currentTimeMillis();
+        long expireTime = expireAfterWrite > 0 ? now + expireAfterWrite : 0;
+        evictionLock.lock();
+        try {
+            CacheNode<K, V> current = cache.get(key);
+            if (current != null && current != expected) {
+                return current.value;
+            }
+            CacheNode<K, V> node = new CacheNode<>(key, value, weight, now, expireTime);
+            cache.put(key, node);
+            if (current != null) {
+                detach(current);
+            }
+            addNode(node);
+            return value;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 用刷新结果替换旧条目，旧条目已被覆盖或删除时放弃
+     */
+    private void replaceNode(CacheNode<K, V> old, V value) {
+        int weight = weigh(old.key, value);
+        long now = System.currentTimeMillis();
+        long expireTime = expireAfterWrite > 0 ? now + expireAfterWrite : 0;
+        evictionLock.lock();
+        try {
+            CacheNode<K, V> node = new CacheNode<>(old.key, value, weight, now, expireTime);
+            if (!cache.replace(old.key, old, node)) {
+                return;
+            }
+            detach(old);
+            addNode(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private int weigh(K key, V value) {
+        int weight = policy == null ? 1 : weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        return weight;
+    }
+
+    /**
+     * 将已写入存储的新条目挂到时间轮和淘汰策略上，调用方需持有淘汰锁
+     */
+    private void addNode(CacheNode<K, V> node) {
+        if (cleanupExecutor == null) {
+            expireEntries();
+        }
+        timerWheel.schedule(node);
+        if (policy != null) {
+            policy.onAdd(node);
+            evictEntries();
+        }
+    }
+
+    /**
+     * 记录命中，锁被占用时放弃本次记录
+     */
+    private void afterRead(CacheNode<K, V> node) {
+        if (policy == null || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            policy.onAccess(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 淘汰超出容量的条目，调用方需持有淘汰锁
+     */
+    private void evictEntries() {
+        List<CacheNode<K, V>> evicted = policy.evict();
+        for (CacheNode<K, V> node : evicted) {
+            timerWheel.deschedule(node);
+            cache.remove(node.key, node);
+        }
+        if (!evicted.isEmpty()) {
+            statsCounter.recordEvictions(evicted.size());
+        }
+    }
+
+    /**
+     * 移除读取时发现已过期的条目，条目已被替换时不做任何操作
+     */
+    private void expireNode(CacheNode<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (cache.remove(node.key, node)) {
+                detach(node);
+                statsCounter.recordExpiry();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 将已从存储中移除的条目从时间轮和淘汰策略中摘除，调用方需持有淘汰锁
+     */
+    private void detach(CacheNode<K, V> node) {
+        timerWheel.deschedule(node);
+        if (policy != null) {
+            policy.onRemove(node);
+        }
+    }
+
+    private ScheduledExecutorService scheduleExpiry() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(EXPIRY_THREAD_FACTORY);
+        executor.scheduleWithFixedDelay(this::cleanupExpiredEntries,
+                EXPIRY_TICK_MILLIS, EXPIRY_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
     /**
      * 清理过期的缓存项
+     *
+     * 推进时间轮，只处理走过的时间槽中的条目。
      */
     private void cleanupExpiredEntries() {
-        cache.entrySet().removeIf(entry ->
-                entry.getValue().isExpired()
-        );
+        evictionLock.lock();
+        try {
+            expireEntries();
+        } finally {
+            evictionLock.unlock();
+        }
     }
 
     /**
-     * 缓存条目内部类
+     * 推进时间轮并移除到期条目，调用方需持有淘汰锁
      */
-    private record CacheEntry<V>(V value, Long expireTime) {
-        public CacheEntry(V value) {
-            this(value, null);
-        }
+    private void expireEntries() {
+        timerWheel.advance(System.currentTimeMillis(), node -> {
+            if (cache.remove(node.key, node)) {
+                if (policy != null) {
+                    policy.onRemove(node);
+                }
+                statsCounter.recordExpiry();
+            }
+        });
+    }
 
-        public boolean isExpired() {
-            return expireTime != null && System.currentTimeMillis() > expireTime;
+    /**
+     * 按淘汰策略的价值顺序淘汰一定比例的条目，无界模式下不做任何操作
+     *
+     * @param fraction 淘汰比例
+     * @return 淘汰的条目数
+     */
+    @Override
+    public int shed(double fraction) {
+        if (policy == null) {
+            return 0;
+        }
+        evictionLock.lock();
+        try {
+            List<CacheNode<K, V>> evicted = policy.shed(fraction);
+            for (CacheNode<K, V> node : evicted) {
+                timerWheel.deschedule(node);
+                cache.remove(node.key, node);
+            }
+            statsCounter.recordPressureEvictions(evicted.size());
+            return evicted.size();
+        } finally {
+            evictionLock.unlock();
         }
     }
 
     /**
      * 关闭清理任务
      */
+    @Override
     public void shutdown() {
-        cleanupExecutor.shutdown();
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdown();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,673 @@
+package com.nexon.nutriai.util.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * 以 long 为键的开放寻址缓存
+ *
+ * 面向手机号这类可以无损编码为正整数的键：键、值、写入时间和过期时间分别存放在并行数组中，
+ * 线性探测寻址，删除时向前回填探测链而不留墓碑。与 {@link InMemoryCache} 相比，
+ * 读写不需要计算字符串哈希、不装箱，每个条目也没有节点对象的开销。
+ *
+ * 读操作使用 {@link StampedLock} 的乐观读，不阻塞也不写共享状态；写操作持有写锁。
+ * 容量满时按 CLOCK（二次机会）算法淘汰：被读到的条目置访问位，淘汰指针扫过时清除访问位，
+ * 跳过一次，已过期的条目优先回收。过期条目在读取或被淘汰指针扫到时移除，不另设清理线程。
+ *
+ * 加载、后台刷新和统计的语义与 {@link InMemoryCache} 一致。
+ *
+ * @param <V> 值类型
+ */
+public final class LongKeyedCache<V> {
+
+    /**
+     * 空槽标记，0 不能作为键
+     */
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final Executor DEFAULT_LOADER_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long maximumSize;
+    private final long expireAfterWrite;
+    private final long refreshAfterWrite;
+    private final StampedLock lock = new StampedLock();
+    private final StatsCounter statsCounter = new StatsCounter();
+    private final Map<Long, CompletableFuture<V>> loadingFutures = new ConcurrentHashMap<>();
+    private final Executor loaderExecutor = DEFAULT_LOADER_EXECUTOR;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private volatile int size;
+
+    /**
+     * 淘汰指针，只在写锁内读写
+     */
+    private int hand;
+
+    /**
+     * @param spec 区域配置
+     */
+    public LongKeyedCache(CacheSpec spec) {
+        this.maximumSize = spec.maximumSize();
+        this.expireAfterWrite = spec.expireAfterWrite();
+        this.refreshAfterWrite = spec.refreshAfterWrite();
+    }
+
+    /**
+     * 获取缓存值
+     *
+     * @param key 缓存键，必须为正数
+     * @return 缓存值，不存在或过期返回null
+     */
+    public V get(long key) {
+        return getIfPresent(key, null);
+    }
+
+    /**
+     * 获取缓存值，命中已超过刷新时间的条目时在后台刷新
+     *
+     * @param key 缓存键
+     * @param loader 后台刷新使用的加载函数，为null时不刷新
+     * @return 缓存值，不存在或过期返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V getIfPresent(long key, LongFunction<? extends V> loader) {
+        checkKey(key);
+        Table t;
+        int index;
+        Object value = null;
+        long writeTime = 0;
+        long expireTime = 0;
+
+        long stamp = lock.tryOptimisticRead();
+        boolean locked = false;
+        while (true) {
+            t = table;
+            index = t.indexOf(key);
+            if (index >= 0) {
+                value = t.values[index];
+                writeTime = t.writeTimes[index];
+                expireTime = t.expireTimes[index];
+            }
+            if (locked || lock.validate(stamp)) {
+                break;
+            }
+            // 乐观读期间有写入，退化为读锁重读一次
+            stamp = lock.readLock();
+            locked = true;
+        }
+        if (locked) {
+            lock.unlockRead(stamp);
+        }
+
+        if (index < 0 || value == null) {
+            statsCounter.recordMiss();
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (expireTime != 0 && now > expireTime) {
+            removeIfUnchanged(key, value, writeTime, true);
+            statsCounter.recordMiss();
+            return null;
+        }
+
+        // 访问位允许与写锁竞争，偶尔丢失只影响淘汰精度
+        t.referenced[index] = true;
+        statsCounter.recordHit();
+        if (loader != null && refreshAfterWrite > 0 && now - writeTime >= refreshAfterWrite) {
+            refresh(key, (V) value, writeTime, loader);
+        }
+        return (V) value;
+    }
+
+    /**
+     * 获取缓存值，不存在时加载，同一个键的并发加载合并为一次
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    public V get(long key, LongFunction<? extends V> loader) {
+        V value = getIfPresent(key, loader);
+        if (value != null) {
+            return value;
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * 加载缓存值，已存在时直接返回，不记录命中或未命中
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值，加载结果为null时返回null
+     */
+    public V load(long key, LongFunction<? extends V> loader) {
+        checkKey(key);
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loadingFutures.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        load(key, loader, future);
+        return join(future);
+    }
+
+    /**
+     * 异步获取缓存值，不存在时在加载线程池中加载
+     *
+     * @param key 缓存键
+     * @param loader 加载函数
+     * @return 缓存值的Future
+     */
+    public CompletableFuture<V> getAsync(long key, LongFunction<? extends V> loader) {
+        V value = getIfPresent(key, loader);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loadingFutures.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return inFlight.copy();
+        }
+        try {
+            loaderExecutor.execute(() -> load(key, loader, future));
+        } catch (RejectedExecutionException e) {
+            loadingFutures.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future.copy();
+    }
+
+    /**
+     * 存储缓存值（使用默认过期时间，未配置时不过期）
+     */
+    public void put(long key, V value) {
+        long now = System.currentTimeMillis();
+        put(key, value, now, expireAfterWrite > 0 ? now + expireAfterWrite : 0);
+    }
+
+    /**
+     * 存储缓存值（指定过期时间）
+     *
+     * @param ttl 过期时间（毫秒）
+     */
+    public void put(long key, V value, long ttl) {
+        long now = System.currentTimeMillis();
+        put(key, value, now, now + ttl);
+    }
+
+    /**
+     * 移除缓存项
+     *
+     * @return 是否成功移除
+     */
+    public boolean remove(long key) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            int index = table.indexOf(key);
+            if (index < 0) {
+                return false;
+            }
+            deleteSlot(table, index);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        checkKey(key);
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index < 0) {
+                return false;
+            }
+            long expireTime = t.expireTimes[index];
+            return expireTime == 0 || System.currentTimeMillis() <= expireTime;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(INITIAL_CAPACITY);
+            size = 0;
+            hand = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 获取缓存大小，已过期但尚未回收的条目仍计入其中
+     */
+    public int size() {
+        return size;
+    }
+
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * 按 CLOCK 顺序淘汰一定比例的条目，已过期和近期未被访问的条目先被淘汰
+     *
+     * @param fraction 淘汰比例
+     * @return 淘汰的条目数
+     */
+    int shed(double fraction) {
+        long stamp = lock.writeLock();
+        try {
+            int target = (int) (size * (1 - fraction));
+            int shed = 0;
+            long now = System.currentTimeMillis();
+            while (size > target && evictOne(table, now, true)) {
+                shed++;
+            }
+            return shed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 遍历当前未过期的条目，遍历时持有读锁
+     */
+    @SuppressWarnings("unchecked")
+    void forEachEntry(LongEntryConsumer<V> consumer) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.readLock();
+        try {
+            Table t = table;
+            for (int i = 0; i < t.keys.length; i++) {
+                long expireTime = t.expireTimes[i];
+                if (t.keys[i] != EMPTY && (expireTime == 0 || now <= expireTime)) {
+                    consumer.accept(t.keys[i], (V) t.values[i], t.writeTimes[i], expireTime);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 按原有时间戳写入条目，已过期的条目直接丢弃
+     */
+    void restore(long key, V value, long writeTime, long expireTime) {
+        if (expireTime != 0 && System.currentTimeMillis() > expireTime) {
+            return;
+        }
+        put(key, value, writeTime, expireTime);
+    }
+
+    private void put(long key, V value, long writeTime, long expireTime) {
+        checkKey(key);
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+        long stamp = lock.writeLock();
+        try {
+            putLocked(key, value, writeTime, expireTime);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 写入条目，调用方需持有写锁
+     */
+    private void putLocked(long key, V value, long writeTime, long expireTime) {
+        Table t = table;
+        int index = t.indexOf(key);
+        if (index < 0) {
+            if (size >= maximumSize) {
+                evictOne(t, writeTime, false);
+            }
+            if ((size + 1) * 2L > t.keys.length) {
+                t = resize(t);
+            }
+            index = t.insertionIndex(key);
+            t.keys[index] = key;
+            size++;
+        }
+        t.values[index] = value;
+        t.writeTimes[index] = writeTime;
+        t.expireTimes[index] = expireTime;
+        t.referenced[index] = false;
+    }
+
+    /**
+     * 写入加载结果，加载期间该键已被写入其他值时放弃
+     *
+     * @param expectedValue 加载开始时该键的值，不存在时为null
+     * @param expectedWriteTime 加载开始时该键的写入时间
+     * @return 缓存中的值：写入成功时为加载结果，否则为加载期间写入的值
+     */
+    @SuppressWarnings("unchecked")
+    private V putIfUnchanged(long key, Object expectedValue, long expectedWriteTime, V value) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index >= 0 && (t.values[index] != expectedValue || t.writeTimes[index] != expectedWriteTime)) {
+                long expireTime = t.expireTimes[index];
+                if (expireTime == 0 || now <= expireTime) {
+                    return (V) t.values[index];
+                }
+            }
+            putLocked(key, value, now, expireAfterWrite > 0 ? now + expireAfterWrite : 0);
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 条目在读取后没有被覆盖时才移除或替换，避免误删刚写入的新值
+     *
+     * @param expired 是否因过期移除，用于统计
+     */
+    private void removeIfUnchanged(long key, Object value, long writeTime, boolean expired) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index >= 0 && t.values[index] == value && t.writeTimes[index] == writeTime) {
+                deleteSlot(t, index);
+                if (expired) {
+                    statsCounter.recordExpiry();
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void replaceIfUnchanged(long key, V oldValue, long oldWriteTime, V newValue) {
+        long now = System.currentTimeMillis();
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int index = t.indexOf(key);
+            if (index >= 0 && t.values[index] == oldValue && t.writeTimes[index] == oldWriteTime) {
+                t.values[index] = newValue;
+                t.writeTimes[index] = now;
+                t.expireTimes[index] = expireAfterWrite > 0 ? now + expireAfterWrite : 0;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 执行加载并完成Future，加载期间该键被写入新值时不覆盖，返回新写入的值
+     */
+    @SuppressWarnings("unchecked")
+    private void load(long key, LongFunction<? extends V> loader, CompletableFuture<V> future) {
+        long startTime = System.nanoTime();
+        boolean loaded = false;
+        try {
+            // 拿到加载权后再查一次，上一次加载可能刚好写入缓存；同时记下当前条目，写入结果时用来判断是否被覆盖
+            V value = null;
+            Object expectedValue = null;
+            long expectedWriteTime = 0;
+            long stamp = lock.readLock();
+            try {
+                Table t = table;
+                int index = t.indexOf(key);
+                if (index >= 0) {
+                    expectedValue = t.values[index];
+                    expectedWriteTime = t.writeTimes[index];
+                    long expireTime = t.expireTimes[index];
+                    if (expireTime == 0 || System.currentTimeMillis() <= expireTime) {
+                        value = (V) expectedValue;
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            if (value == null) {
+                loaded = true;
+                value = loader.apply(key);
+                if (value != null) {
+                    value = putIfUnchanged(key, expectedValue, expectedWriteTime, value);
+                    statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+                } else {
+                    statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+                }
+            }
+            future.complete(value);
+        } catch (Throwable t) {
+            if (loaded) {
+                statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            }
+            future.completeExceptionally(t);
+        } finally {
+            loadingFutures.remove(key, future);
+        }
+    }
+
+    private void refresh(long key, V oldValue, long oldWriteTime, LongFunction<? extends V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (loadingFutures.putIfAbsent(key, future) != null) {
+            return;
+        }
+        try {
+            loaderExecutor.execute(() -> {
+                long startTime = System.nanoTime();
+                try {
+                    V value = loader.apply(key);
+                    if (value != null) {
+                        statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+                        replaceIfUnchanged(key, oldValue, oldWriteTime, value);
+                    } else {
+                        statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+                    }
+                    future.complete(value != null ? value : oldValue);
+                } catch (Throwable t) {
+                    statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+                    future.complete(oldValue);
+                } finally {
+                    loadingFutures.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loadingFutures.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 按 CLOCK 算法淘汰一个条目，调用方需持有写锁
+     *
+     * 扫描两圈内必然找到访问位已清除的条目。
+     *
+     * @param pressure 是否因内存压力淘汰，用于统计
+     * @return 是否淘汰了条目
+     */
+    private boolean evictOne(Table t, long now, boolean pressure) {
+        int length = t.keys.length;
+        for (int i = 0; i < length * 2; i++) {
+            int index = hand & (length - 1);
+            if (t.keys[index] == EMPTY) {
+                hand++;
+                continue;
+            }
+            long expireTime = t.expireTimes[index];
+            if (expireTime != 0 && now > expireTime) {
+                deleteSlot(t, index);
+                statsCounter.recordExpiry();
+                return true;
+            }
+            if (t.referenced[index]) {
+                t.referenced[index] = false;
+                hand++;
+                continue;
+            }
+            // 回填后当前位置可能换成了后面的条目，指针停在原地等下一次扫描
+            deleteSlot(t, index);
+            if (pressure) {
+                statsCounter.recordPressureEvictions(1);
+            } else {
+                statsCounter.recordEvictions(1);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 删除槽位并向前回填同一探测链上的后续条目，调用方需持有写锁
+     */
+    private void deleteSlot(Table t, int index) {
+        int mask = t.keys.length - 1;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            long key = t.keys[next];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = Table.hash(key) & mask;
+            // 条目的理想位置不在 (hole, next] 区间内时，可以前移填补空洞
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                t.move(next, hole);
+                hole = next;
+            }
+        }
+        t.clear(hole);
+        size--;
+    }
+
+    private Table resize(Table old) {
+        Table t = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            long key = old.keys[i];
+            if (key != EMPTY) {
+                int index = t.insertionIndex(key);
+                t.keys[index] = key;
+                t.values[index] = old.values[i];
+                t.writeTimes[index] = old.writeTimes[i];
+                t.expireTimes[index] = old.expireTimes[i];
+                t.referenced[index] = old.referenced[i];
+            }
+        }
+        table = t;
+        return t;
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("key must be positive");
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    interface LongEntryConsumer<V> {
+        void accept(long key, V value, long writeTime, long expireTime);
+    }
+
+    /**
+     * 并行数组组成的哈希表，容量为 2 的幂，扩容时整体替换
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final Object[] values;
+        final long[] writeTimes;
+        final long[] expireTimes;
+        final boolean[] referenced;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            writeTimes = new long[capacity];
+            expireTimes = new long[capacity];
+            referenced = new boolean[capacity];
+        }
+
+        static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        /**
+         * 查找键所在槽位，探测次数不超过表长，乐观读看到不一致的数据时也能结束
+         *
+         * @return 槽位下标，不存在返回 -1
+         */
+        int indexOf(long key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            for (int i = 0; i <= mask; i++) {
+                long current = keys[index];
+                if (current == key) {
+                    return index;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        int insertionIndex(long key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (keys[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        void move(int from, int to) {
+            keys[to] = keys[from];
+            values[to] = values[from];
+            writeTimes[to] = writeTimes[from];
+            expireTimes[to] = expireTimes[from];
+            referenced[to] = referenced[from];
+        }
+
+        void clear(int index) {
+            keys[index] = EMPTY;
+            values[index] = null;
+            writeTimes[index] = 0;
+            expireTimes[index] = 0;
+            referenced[index] = false;
+        }
+    }
+}
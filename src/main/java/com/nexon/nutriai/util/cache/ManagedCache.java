@@ -0,0 +1,20 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 由 {@link CacheManager} 管理生命周期的缓存
+ */
+interface ManagedCache {
+
+    /**
+     * 按价值从低到高淘汰一定比例的条目，用于缓解内存压力
+     *
+     * @param fraction 淘汰比例，取值 (0, 1]
+     * @return 淘汰的条目数
+     */
+    int shed(double fraction);
+
+    /**
+     * 关闭后台任务
+     */
+    void shutdown();
+}
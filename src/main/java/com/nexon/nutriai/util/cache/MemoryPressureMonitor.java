@@ -0,0 +1,156 @@
+package com.nexon.nutriai.util.cache;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 堆内存压力监听
+ *
+ * 监听 GC 结束的通知，只在这次 GC 回收了老年代时（Full GC、G1 的混合回收、ZGC 等不分代收集器的每个周期）
+ * 读取通知里老年代在 GC 后的占用率：Young GC 不清理老年代，这时的占用率包含尚未回收的垃圾，不代表真实的内存压力。
+ * 占用率超过水位线时回调 {@link CacheManager#shed(double)} 淘汰各区域中价值最低的一部分条目，
+ * 两次淘汰至少间隔 minInterval，被淘汰的条目要等到下一次老年代回收才真正释放，间隔内不重复淘汰。
+ * 只有老年代内存池支持使用量阈值，据此识别老年代；ZGC 等不分代的收集器识别为整个堆。
+ */
+@Slf4j
+public class MemoryPressureMonitor implements NotificationListener {
+
+    private static final String MAJOR_GC_ACTION = "end of major GC";
+
+    private final CacheManager cacheManager;
+    private final double watermark;
+    private final double shedFraction;
+    private final long minIntervalNanos;
+    private final List<String> oldGenPools = new ArrayList<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    /**
+     * 上一次淘汰的时间（System.nanoTime），GC 通知可能来自不同线程
+     */
+    private final AtomicLong lastShedNanos = new AtomicLong();
+
+    /**
+     * @param cacheManager 缓存管理器
+     * @param watermark 老年代占用率水位线，取值 (0, 1)
+     * @param shedFraction 每次超过水位线时各区域淘汰的比例
+     * @param minInterval 两次淘汰的最小间隔
+     */
+    public MemoryPressureMonitor(CacheManager cacheManager, double watermark, double shedFraction, Duration minInterval) {
+        if (watermark <= 0 || watermark >= 1) {
+            throw new IllegalArgumentException("watermark must be between 0 and 1");
+        }
+        if (shedFraction <= 0 || shedFraction > 1) {
+            throw new IllegalArgumentException("shedFraction must be between 0 and 1");
+        }
+        this.cacheManager = cacheManager;
+        this.watermark = watermark;
+        this.shedFraction = shedFraction;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.lastShedNanos.set(System.nanoTime() - minIntervalNanos);
+    }
+
+    public void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+                    && pool.isUsageThresholdSupported()) {
+                oldGenPools.add(pool.getName());
+            }
+        }
+        if (oldGenPools.isEmpty()) {
+            log.warn("未找到老年代内存池，内存压力淘汰不生效");
+            return;
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    public void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException ignored) {
+                // 已移除
+            }
+        }
+        emitters.clear();
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+        Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
+        Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
+        if (!MAJOR_GC_ACTION.equals(info.getGcAction()) && !oldGenShrunk(before, after)) {
+            return;
+        }
+        double occupancy = oldGenOccupancy(after);
+        if (occupancy < watermark) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastShedNanos.get();
+        if (now - last < minIntervalNanos || !lastShedNanos.compareAndSet(last, now)) {
+            return;
+        }
+        int shed = cacheManager.shed(shedFraction);
+        log.warn("{} 后老年代占用率 {} 超过水位线 {}，缓存淘汰 {} 条", info.getGcName(),
+                String.format("%.2f", occupancy), watermark, shed);
+    }
+
+    /**
+     * 这次 GC 是否回收了老年代：Young GC 只会因晋升让老年代增长，老年代变小说明它被回收过
+     */
+    private boolean oldGenShrunk(Map<String, MemoryUsage> before, Map<String, MemoryUsage> after) {
+        for (String pool : oldGenPools) {
+            MemoryUsage usageBefore = before.get(pool);
+            MemoryUsage usageAfter = after.get(pool);
+            if (usageBefore != null && usageAfter != null && usageAfter.getUsed() < usageBefore.getUsed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 老年代在这次 GC 后的占用率，多个内存池取最大值
+     */
+    private double oldGenOccupancy(Map<String, MemoryUsage> after) {
+        double occupancy = 0;
+        for (String pool : oldGenPools) {
+            MemoryUsage usage = after.get(pool);
+            if (usage == null) {
+                continue;
+            }
+            long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+            if (max > 0) {
+                occupancy = Math.max(occupancy, (double) usage.getUsed() / max);
+            }
+        }
+        return occupancy;
+    }
+}
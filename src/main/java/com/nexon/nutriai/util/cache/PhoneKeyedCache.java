@@ -0,0 +1,176 @@
+package com.nexon.nutriai.util.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 以手机号为键的缓存
+ *
+ * 把 11 位数字的手机号编码为 long 后存入 {@link LongKeyedCache}，对外仍是 {@link Cache} 接口。
+ * 不是 11 位数字的键（如开发环境模拟的用户标识）交给普通的 {@link InMemoryCache} 处理，行为不变。
+ * 兜底缓存从区域容量中分出一小部分，两者之和不超过区域的 maximumSize；它与 {@link LongKeyedCache} 一样
+ * 不占用单独的清理线程，过期条目在读写或淘汰时移除。
+ *
+ * @param <V> 值类型
+ */
+public class PhoneKeyedCache<V> implements Cache<String, V>, SnapshotSupport<String, V>, ManagedCache {
+
+    private static final int PHONE_LENGTH = 11;
+
+    /**
+     * 兜底缓存占区域容量的比例
+     */
+    private static final int FALLBACK_DIVISOR = 64;
+
+    private final LongKeyedCache<V> phoneCache;
+    private final InMemoryCache<String, V> fallbackCache;
+
+    /**
+     * @param spec 区域配置
+     */
+    public PhoneKeyedCache(CacheSpec spec) {
+        long fallbackSize = spec.maximumSize() == 0 ? 0 : Math.max(1, spec.maximumSize() / FALLBACK_DIVISOR);
+        this.phoneCache = new LongKeyedCache<>(withMaximumSize(spec, spec.maximumSize() - fallbackSize));
+        this.fallbackCache = InMemoryCache.withoutExpiryThread(withMaximumSize(spec, fallbackSize));
+    }
+
+    @Override
+    public V get(String key) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.get(key) : phoneCache.get(phone);
+    }
+
+    @Override
+    public V get(String key, Function<? super String, ? extends V> loader) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.get(key, loader) : phoneCache.get(phone, _ -> loader.apply(key));
+    }
+
+    @Override
+    public V getIfPresent(String key, Function<? super String, ? extends V> loader) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.getIfPresent(key, loader) : phoneCache.getIfPresent(phone, _ -> loader.apply(key));
+    }
+
+    @Override
+    public V load(String key, Function<? super String, ? extends V> loader) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.load(key, loader) : phoneCache.load(phone, _ -> loader.apply(key));
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(String key, Function<? super String, ? extends V> loader) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.getAsync(key, loader) : phoneCache.getAsync(phone, _ -> loader.apply(key));
+    }
+
+    @Override
+    public void put(String key, V value) {
+        long phone = encode(key);
+        if (phone < 0) {
+            fallbackCache.put(key, value);
+        } else {
+            phoneCache.put(phone, value);
+        }
+    }
+
+    @Override
+    public void put(String key, V value, long ttl) {
+        long phone = encode(key);
+        if (phone < 0) {
+            fallbackCache.put(key, value, ttl);
+        } else {
+            phoneCache.put(phone, value, ttl);
+        }
+    }
+
+    @Override
+    public boolean remove(String key) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.remove(key) : phoneCache.remove(phone);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        long phone = encode(key);
+        return phone < 0 ? fallbackCache.containsKey(key) : phoneCache.containsKey(phone);
+    }
+
+    @Override
+    public void clear() {
+        phoneCache.clear();
+        fallbackCache.clear();
+    }
+
+    @Override
+    public int size() {
+        return phoneCache.size() + fallbackCache.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return phoneCache.stats().plus(fallbackCache.stats());
+    }
+
+    @Override
+    public void forEachEntry(EntryConsumer<String, V> consumer) {
+        phoneCache.forEachEntry((phone, value, writeTime, expireTime) ->
+                consumer.accept(decode(phone), value, writeTime, expireTime));
+        fallbackCache.forEachEntry(consumer);
+    }
+
+    @Override
+    public void restore(String key, V value, long writeTime, long expireTime) {
+        long phone = encode(key);
+        if (phone < 0) {
+            fallbackCache.restore(key, value, writeTime, expireTime);
+        } else {
+            phoneCache.restore(phone, value, writeTime, expireTime);
+        }
+    }
+
+    @Override
+    public int shed(double fraction) {
+        return phoneCache.shed(fraction) + fallbackCache.shed(fraction);
+    }
+
+    /**
+     * 两部分都没有清理线程，无需关闭
+     */
+    @Override
+    public void shutdown() {
+    }
+
+    private static CacheSpec withMaximumSize(CacheSpec spec, long maximumSize) {
+        return new CacheSpec(maximumSize, spec.expireAfterWrite(), spec.refreshAfterWrite(), spec.phoneKeyed(),
+                spec.persistent());
+    }
+
+    /**
+     * 将 11 位数字编码为 long，定长保证不同的字符串得到不同的编码
+     *
+     * @return 编码结果，不是 11 位数字或全为 0 时返回 -1
+     */
+    static long encode(String key) {
+        if (key == null || key.length() != PHONE_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < PHONE_LENGTH; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value == 0 ? -1 : value;
+    }
+
+    /**
+     * 还原为 11 位字符串，保留前导 0
+     */
+    static String decode(long phone) {
+        String digits = Long.toString(phone);
+        return digits.length() >= PHONE_LENGTH ? digits : "0".repeat(PHONE_LENGTH - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,60 @@
+package com.nexon.nutriai.util.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * 响应式缓存接口
+ *
+ * {@link Cache} 的响应式门面，供 WebFlux 调用链使用。
+ * 命中时返回的 Mono 在订阅线程上同步完成；未命中需要加载时切换到专用的加载调度器执行，
+ * 阻塞的数据库查询不会占用 Netty 事件循环线程。
+ */
+public interface ReactiveCache<K, V> {
+
+    /**
+     * 获取缓存值
+     * @param key 缓存键
+     * @return 缓存值，不存在时为空Mono
+     */
+    Mono<V> get(K key);
+
+    /**
+     * 获取缓存值，不存在时在加载调度器上调用loader加载并写入缓存
+     *
+     * 与同步接口共享同一组进行中的加载，同一个键的并发加载只执行一次。
+     * @param key 缓存键
+     * @param loader 加载函数（可阻塞）
+     * @return 缓存值，加载结果为null时为空Mono
+     */
+    Mono<V> get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * 设置缓存值
+     * @param key 缓存键
+     * @param value 缓存值
+     */
+    Mono<Void> put(K key, V value);
+
+    /**
+     * 设置带过期时间的缓存值
+     * @param key 缓存键
+     * @param value 缓存值
+     * @param ttl 过期时间(毫秒)
+     */
+    Mono<Void> put(K key, V value, long ttl);
+
+    /**
+     * 删除缓存项
+     * @param key 缓存键
+     * @return 是否删除成功
+     */
+    Mono<Boolean> remove(K key);
+
+    /**
+     * 获取底层的同步缓存
+     * @return 同步缓存
+     */
+    Cache<K, V> synchronous();
+}
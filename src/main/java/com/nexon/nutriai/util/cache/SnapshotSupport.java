@@ -0,0 +1,27 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 支持快照的缓存
+ *
+ * 快照按条目导出键值和绝对时间戳，恢复时保留原有的写入时间与过期时间。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+interface SnapshotSupport<K, V> {
+
+    /**
+     * 遍历当前未过期的条目，遍历期间的并发写入不保证可见
+     */
+    void forEachEntry(EntryConsumer<K, V> consumer);
+
+    /**
+     * 按原有时间戳写入条目，已过期的条目直接丢弃
+     */
+    void restore(K key, V value, long writeTime, long expireTime);
+
+    @FunctionalInterface
+    interface EntryConsumer<K, V> {
+        void accept(K key, V value, long writeTime, long expireTime);
+    }
+}
@@ -0,0 +1,56 @@
+package com.nexon.nutriai.util.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存统计计数器
+ *
+ * 使用 {@link LongAdder} 分段计数，读路径上的并发命中不会争用同一个计数单元。
+ */
+final class StatsCounter {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiryCount = new LongAdder();
+    private final LongAdder pressureEvictionCount = new LongAdder();
+
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    void recordLoadSuccess(long loadTime) {
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    void recordLoadFailure(long loadTime) {
+        loadFailureCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    void recordEvictions(int count) {
+        evictionCount.add(count);
+    }
+
+    void recordExpiry() {
+        expiryCount.increment();
+    }
+
+    void recordPressureEvictions(int count) {
+        pressureEvictionCount.add(count);
+    }
+
+    CacheStats snapshot() {
+        return new CacheStats(hitCount.sum(), missCount.sum(),
+                loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTime.sum(),
+                evictionCount.sum(), expiryCount.sum(), pressureEvictionCount.sum());
+    }
+}
@@ -0,0 +1,162 @@
+package com.nexon.nutriai.util.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ *
+ * 按过期时间把条目挂到不同精度的时间槽中：第 0 层每槽约 1 秒，第 1 层约 1 分钟，第 2 层约 1 小时，
+ * 第 3 层约 18 小时，更远的条目放入溢出槽。时间推进时只处理走过的槽，
+ * 到期条目交给回调移除，未到期条目按剩余时间降级到更精细的槽中。
+ *
+ * 调度、取消均为 O(1)，推进的开销只与到期（或降级）的条目数相关，与缓存总量无关。
+ * 非线程安全，调用方需在淘汰锁内访问。
+ */
+final class TimerWheel<K, V> {
+
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    /**
+     * 各层每个槽覆盖的时间跨度（毫秒）取 2 的幂，便于用移位计算槽位
+     */
+    private static final int[] SHIFT = {10, 16, 22, 26, 28};
+    private static final long[] SPANS = {1L << 10, 1L << 16, 1L << 22, 1L << 26, 1L << 28, 1L << 28};
+
+    private final CacheNode<K, V>[][] wheel;
+    private long time;
+
+    TimerWheel(long now) {
+        this.time = now;
+        this.wheel = newWheel(BUCKETS.length);
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = newBuckets(BUCKETS[i]);
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                CacheNode<K, V> sentinel = new CacheNode<>(null, null, 0, 0, 0);
+                sentinel.prevInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheNode<K, V>[][] newWheel(int levels) {
+        return (CacheNode<K, V>[][]) new CacheNode<?, ?>[levels][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheNode<K, V>[] newBuckets(int size) {
+        return (CacheNode<K, V>[]) new CacheNode<?, ?>[size];
+    }
+
+    /**
+     * 将带过期时间的条目挂入对应的时间槽
+     */
+    void schedule(CacheNode<K, V> node) {
+        if (node.expireTime == 0) {
+            return;
+        }
+        CacheNode<K, V> sentinel = findBucket(node.expireTime);
+        node.prevInTimer = sentinel.prevInTimer;
+        node.nextInTimer = sentinel;
+        sentinel.prevInTimer.nextInTimer = node;
+        sentinel.prevInTimer = node;
+    }
+
+    /**
+     * 将条目从时间轮中摘除，未调度的条目不做任何操作
+     */
+    void deschedule(CacheNode<K, V> node) {
+        if (node.nextInTimer == null) {
+            return;
+        }
+        node.prevInTimer.nextInTimer = node.nextInTimer;
+        node.nextInTimer.prevInTimer = node.prevInTimer;
+        node.prevInTimer = null;
+        node.nextInTimer = null;
+    }
+
+    /**
+     * 推进时间轮，到期条目交给回调处理
+     *
+     * @param now 当前时间（毫秒）
+     * @param onExpired 到期条目回调
+     */
+    void advance(long now, Consumer<CacheNode<K, V>> onExpired) {
+        long previous = time;
+        if (now <= previous) {
+            return;
+        }
+        time = now;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previous >>> SHIFT[i];
+            long currentTicks = now >>> SHIFT[i];
+            if (currentTicks - previousTicks <= 0) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, onExpired);
+        }
+    }
+
+    void clear() {
+        for (CacheNode<K, V>[] buckets : wheel) {
+            for (CacheNode<K, V> sentinel : buckets) {
+                CacheNode<K, V> node = sentinel.nextInTimer;
+                while (node != sentinel) {
+                    CacheNode<K, V> next = node.nextInTimer;
+                    node.prevInTimer = null;
+                    node.nextInTimer = null;
+                    node = next;
+                }
+                sentinel.prevInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 处理某一层中走过的槽
+     */
+    private void expire(int index, long previousTicks, long delta, Consumer<CacheNode<K, V>> onExpired) {
+        CacheNode<K, V>[] timerWheel = wheel[index];
+        int mask = timerWheel.length - 1;
+        int steps = (int) Math.min(delta + 1, timerWheel.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+
+        for (int i = start; i < end; i++) {
+            CacheNode<K, V> sentinel = timerWheel[i & mask];
+            CacheNode<K, V> node = sentinel.nextInTimer;
+            sentinel.prevInTimer = sentinel;
+            sentinel.nextInTimer = sentinel;
+
+            while (node != sentinel) {
+                CacheNode<K, V> next = node.nextInTimer;
+                node.prevInTimer = null;
+                node.nextInTimer = null;
+                if (node.isExpired(time)) {
+                    onExpired.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 根据剩余时间选择时间槽
+     */
+    private CacheNode<K, V> findBucket(long expireTime) {
+        long duration = expireTime - time;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = expireTime >>> SHIFT[i];
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[length][0];
+    }
+}
@@ -0,0 +1,241 @@
+package com.nexon.nutriai.util.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W-TinyLFU 淘汰策略
+ *
+ * 新条目先进入容量约 1% 的窗口区（LRU），溢出后作为候选者进入主区。
+ * 主区分为考察区和保护区（SLRU），考察区中再次被访问的条目晋升到保护区。
+ * 主区满时用 {@link FrequencySketch} 比较候选者与考察区队首（受害者）的历史频率，
+ * 频率更高者留下，使一次性的扫描流量无法挤掉真正的热点数据。
+ *
+ * 非线程安全，调用方需在淘汰锁内访问。
+ */
+final class TinyLfuPolicy<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.80;
+
+    /**
+     * 频率低于该值的候选者不参与随机准入，防止哈希碰撞攻击
+     */
+    private static final int ADMIT_HASHDOS_THRESHOLD = 6;
+
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protect = new AccessOrderDeque<>();
+    private final FrequencySketch<K> sketch;
+
+    /**
+     * @param maximum 最大权重
+     * @param expectedSize 预估的最大条目数，用于确定频率表大小
+     */
+    TinyLfuPolicy(long maximum, long expectedSize) {
+        this.maximum = maximum;
+        this.windowMaximum = (long) (maximum * WINDOW_RATIO);
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_RATIO);
+        this.sketch = new FrequencySketch<>(expectedSize);
+    }
+
+    long weightedSize() {
+        return totalWeight;
+    }
+
+    /**
+     * 新条目加入窗口区
+     */
+    void onAdd(CacheNode<K, V> node) {
+        sketch.increment(node.key);
+        node.queueType = CacheNode.WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        totalWeight += node.weight;
+    }
+
+    /**
+     * 条目被命中：窗口区与保护区内移到队尾，考察区内晋升到保护区
+     */
+    void onAccess(CacheNode<K, V> node) {
+        sketch.increment(node.key);
+        switch (node.queueType) {
+            case CacheNode.WINDOW -> window.moveToBack(node);
+            case CacheNode.PROBATION -> {
+                probation.remove(node);
+                node.queueType = CacheNode.PROTECTED;
+                protect.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+            }
+            case CacheNode.PROTECTED -> protect.moveToBack(node);
+            default -> {
+                // 已移除的条目不再记录
+            }
+        }
+    }
+
+    /**
+     * 条目被移除（覆盖、删除或过期）
+     */
+    void onRemove(CacheNode<K, V> node) {
+        switch (node.queueType) {
+            case CacheNode.WINDOW -> {
+                window.remove(node);
+                windowWeight -= node.weight;
+            }
+            case CacheNode.PROBATION -> probation.remove(node);
+            case CacheNode.PROTECTED -> {
+                protect.remove(node);
+                protectedWeight -= node.weight;
+            }
+            default -> {
+                return;
+            }
+        }
+        totalWeight -= node.weight;
+        node.queueType = CacheNode.RETIRED;
+    }
+
+    /**
+     * 淘汰超出容量的条目
+     *
+     * @return 被淘汰的条目，调用方负责将其从存储中移除
+     */
+    List<CacheNode<K, V>> evict() {
+        CacheNode<K, V> candidate = moveWindowOverflowToProbation();
+        if (totalWeight <= maximum) {
+            return List.of();
+        }
+
+        List<CacheNode<K, V>> evicted = new ArrayList<>();
+        while (totalWeight > maximum) {
+            CacheNode<K, V> victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protect.peekFirst();
+            }
+            if (victim == null) {
+                victim = window.peekFirst();
+            }
+            if (victim == null) {
+                break;
+            }
+
+            if (candidate == null || candidate == victim || candidate.queueType != CacheNode.PROBATION) {
+                if (candidate == victim) {
+                    candidate = candidate.nextInAccessOrder;
+                }
+                evicted.add(victim);
+                onRemove(victim);
+            } else if (candidate.weight > maximum || !admit(candidate.key, victim.key)) {
+                CacheNode<K, V> next = candidate.nextInAccessOrder;
+                evicted.add(candidate);
+                onRemove(candidate);
+                candidate = next;
+            } else {
+                evicted.add(victim);
+                onRemove(victim);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 按价值从低到高淘汰一定比例的权重：先淘汰考察区（低频），再淘汰窗口区（新写入），最后才淘汰保护区
+     *
+     * @param fraction 淘汰比例
+     * @return 被淘汰的条目，调用方负责将其从存储中移除
+     */
+    List<CacheNode<K, V>> shed(double fraction) {
+        long target = (long) (totalWeight * (1 - fraction));
+        List<CacheNode<K, V>> evicted = new ArrayList<>();
+        while (totalWeight > target) {
+            CacheNode<K, V> victim = probation.peekFirst();
+            if (victim == null) {
+                victim = window.peekFirst();
+            }
+            if (victim == null) {
+                victim = protect.peekFirst();
+            }
+            if (victim == null) {
+                break;
+            }
+            evicted.add(victim);
+            onRemove(victim);
+        }
+        return evicted;
+    }
+
+    void clear() {
+        retireAll(window);
+        retireAll(probation);
+        retireAll(protect);
+        windowWeight = 0;
+        protectedWeight = 0;
+        totalWeight = 0;
+    }
+
+    private void retireAll(AccessOrderDeque<K, V> deque) {
+        CacheNode<K, V> node;
+        while ((node = deque.pollFirst()) != null) {
+            node.queueType = CacheNode.RETIRED;
+        }
+    }
+
+    /**
+     * 窗口区溢出的条目移入考察区队尾
+     *
+     * @return 本次移入的第一个条目（首个候选者），没有则返回 null
+     */
+    private CacheNode<K, V> moveWindowOverflowToProbation() {
+        CacheNode<K, V> first = null;
+        while (windowWeight > windowMaximum) {
+            CacheNode<K, V> node = window.pollFirst();
+            if (node == null) {
+                break;
+            }
+            windowWeight -= node.weight;
+            node.queueType = CacheNode.PROBATION;
+            probation.addLast(node);
+            if (first == null) {
+                first = node;
+            }
+        }
+        return first;
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            CacheNode<K, V> node = protect.pollFirst();
+            if (node == null) {
+                break;
+            }
+            protectedWeight -= node.weight;
+            node.queueType = CacheNode.PROBATION;
+            probation.addLast(node);
+        }
+    }
+
+    /**
+     * 候选者历史频率高于受害者时准入；频率相近的高频候选者以小概率准入，避免被构造的碰撞长期拒绝
+     */
+    private boolean admit(K candidateKey, K victimKey) {
+        int candidateFreq = sketch.frequency(candidateKey);
+        int victimFreq = sketch.frequency(victimKey);
+        if (candidateFreq > victimFreq) {
+            return true;
+        } else if (candidateFreq < ADMIT_HASHDOS_THRESHOLD) {
+            return false;
+        }
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+}
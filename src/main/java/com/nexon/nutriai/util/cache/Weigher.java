@@ -0,0 +1,28 @@
+package com.nexon.nutriai.util.cache;
+
+/**
+ * 缓存条目权重计算器
+ *
+ * 有界缓存按权重之和限制容量，默认每个条目权重为 1（即按条目数限制）。
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * 计算条目权重
+     * @param key 缓存键
+     * @param value 缓存值
+     * @return 非负权重
+     */
+    int weigh(K key, V value);
+
+    /**
+     * 每个条目权重均为 1 的计算器
+     */
+    static <K, V> Weigher<K, V> singleton() {
+        return (key, value) -> 1;
+    }
+}
@@ -0,0 +1,178 @@
+package com.nexon.nutriai.config.sse;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link SseEventDecoder} 的测试
+ *
+ * 使用池化的 Netty 缓冲区，每个用例结束时检查原始缓冲区和输出的事件都已释放（refCnt 为 0）。
+ */
+class SseEventDecoderTest {
+
+    private static final String MIXED_STREAM = "data:hello\n\n"
+            + "data: lead\r\n\r\n"
+            + ": comment\nevent: x\nid: 1\nretry: 10\n"
+            + "data:你好\ndata:世界\n\n"
+            + "data\n\n"
+            + "data:{\"a\":1}\r\r"
+            + "dataX:ignored\n"
+            + "data:tail";
+
+    private static final List<String> MIXED_EVENTS = List.of("hello", " lead", "你好\n世界", "", "{\"a\":1}", "tail");
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(new PooledByteBufAllocator(false));
+    private final List<ByteBuf> allocated = new ArrayList<>();
+
+    @AfterEach
+    void allBuffersReleased() {
+        for (ByteBuf buffer : allocated) {
+            assertThat(buffer.refCnt()).as("refCnt of %s", buffer).isZero();
+        }
+    }
+
+    @Test
+    void decodesMixedStreamInOneBuffer() {
+        assertThat(decode(MIXED_STREAM)).isEqualTo(MIXED_EVENTS);
+    }
+
+    @Test
+    void decodesMixedStreamAtEverySingleSplitPoint() {
+        byte[] bytes = MIXED_STREAM.getBytes(StandardCharsets.UTF_8);
+        for (int i = 1; i < bytes.length; i++) {
+            assertThat(decode(split(bytes, i))).as("split at %d", i).isEqualTo(MIXED_EVENTS);
+        }
+    }
+
+    @Test
+    void decodesMixedStreamAtEveryPairOfSplitPoints() {
+        byte[] bytes = MIXED_STREAM.getBytes(StandardCharsets.UTF_8);
+        for (int i = 1; i < bytes.length; i++) {
+            for (int j = i + 1; j < bytes.length; j++) {
+                assertThat(decode(split(bytes, i, j))).as("split at %d, %d", i, j).isEqualTo(MIXED_EVENTS);
+            }
+        }
+    }
+
+    @Test
+    void carriageReturnAtEndOfBufferFollowedByLineFeed() {
+        assertThat(decode("data:a\r", "\ndata:b\r", "\n\r", "\ndata:c\r\n\r", "\n"))
+                .isEqualTo(List.of("a\nb", "c"));
+    }
+
+    @Test
+    void joinsMultiLineData() {
+        assertThat(decode("data:x\ndata:\ndata:y\n\ndata:1\ndata:2\n", "data:3\n\n"))
+                .isEqualTo(List.of("x\n\ny", "1\n2\n3"));
+    }
+
+    @Test
+    void emitsSingleLineEventWithoutCopying() {
+        List<String> events = new ArrayList<>();
+        List<Boolean> slices = new ArrayList<>();
+        SseEventDecoder.decode(Flux.fromIterable(buffers("data:one\n\ndata:two\n\ndata:th", "ree\n\n")), bufferFactory)
+                .doOnNext(event -> {
+                    ByteBuf nativeBuffer = ((NettyDataBuffer) event).getNativeBuffer();
+                    allocated.add(nativeBuffer);
+                    slices.add(nativeBuffer.unwrap() != null);
+                    events.add(event.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(event);
+                })
+                .blockLast();
+        assertThat(events).isEqualTo(List.of("one", "two", "three"));
+        assertThat(slices).isEqualTo(List.of(true, true, false));
+    }
+
+    @Test
+    void failsWhenLineExceedsLimit() {
+        int chunk = 8192;
+        byte[] bytes = new byte[chunk];
+        Arrays.fill(bytes, (byte) 'x');
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i <= SseEventDecoder.MAX_EVENT_SIZE / chunk; i++) {
+            buffers.add(buffer(bytes));
+        }
+        StepVerifier.create(SseEventDecoder.decode(Flux.fromIterable(buffers), bufferFactory))
+                .expectError(DataBufferLimitException.class)
+                .verify();
+    }
+
+    @Test
+    void failsWhenEventExceedsLimitAndReleasesDecodedEvents() {
+        byte[] line = ("data:" + "y".repeat(1000) + "\n").getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        buffers.add(buffer("data:done\n\n".getBytes(StandardCharsets.UTF_8)));
+        int lines = SseEventDecoder.MAX_EVENT_SIZE / 1000 + 1;
+        byte[] bytes = new byte[line.length * lines + 11];
+        System.arraycopy("data:first\n".getBytes(StandardCharsets.UTF_8), 0, bytes, 0, 11);
+        for (int i = 0; i < lines; i++) {
+            System.arraycopy(line, 0, bytes, 11 + i * line.length, line.length);
+        }
+        buffers.add(buffer(bytes));
+        List<String> events = new ArrayList<>();
+        StepVerifier.create(SseEventDecoder.decode(Flux.fromIterable(buffers), bufferFactory)
+                        .doOnNext(event -> {
+                            events.add(event.toString(StandardCharsets.UTF_8));
+                            DataBufferUtils.release(event);
+                        }))
+                .expectNextCount(1)
+                .expectError(DataBufferLimitException.class)
+                .verify();
+        assertThat(events).isEqualTo(List.of("done"));
+    }
+
+    private List<String> decode(String... parts) {
+        return decode(Arrays.stream(parts).map(part -> part.getBytes(StandardCharsets.UTF_8)).toList());
+    }
+
+    private List<String> decode(List<byte[]> parts) {
+        List<DataBuffer> buffers = parts.stream().map(this::buffer).toList();
+        List<String> events = new ArrayList<>();
+        SseEventDecoder.decode(Flux.fromIterable(buffers), bufferFactory)
+                .doOnNext(event -> {
+                    allocated.add(((NettyDataBuffer) event).getNativeBuffer());
+                    events.add(event.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(event);
+                })
+                .blockLast();
+        return events;
+    }
+
+    private List<DataBuffer> buffers(String... parts) {
+        return Arrays.stream(parts).map(part -> buffer(part.getBytes(StandardCharsets.UTF_8))).toList();
+    }
+
+    private DataBuffer buffer(byte[] bytes) {
+        NettyDataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
+        buffer.write(bytes);
+        allocated.add(buffer.getNativeBuffer());
+        return buffer;
+    }
+
+    private static List<byte[]> split(byte[] bytes, int... points) {
+        List<byte[]> parts = new ArrayList<>();
+        int from = 0;
+        for (int point : points) {
+            parts.add(Arrays.copyOfRange(bytes, from, point));
+            from = point;
+        }
+        parts.add(Arrays.copyOfRange(bytes, from, bytes.length));
+        return parts;
+    }
+}
@@ -0,0 +1,127 @@
+package com.nexon.nutriai.config.sse.transformer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexon.nutriai.config.sse.SseEnvelope;
+import com.nexon.nutriai.pojo.response.OpenAiSseChunk;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenAI 格式单个事件的包装开销：原来每个片段构建 {@link OpenAiSseChunk} 再用 Jackson 序列化，
+ * 现在用流开始时构建的 {@link SseEnvelope} 直接在字节上拼接。
+ *
+ * 两条路径都从上游事件的 data 字节开始，到得到可写出的池化 DataBuffer 为止，输出的事件内容相同。
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SseFramingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseFramingBenchmark {
+
+    private static final String CHAT_ID = "req-6f1c2a8e-0b7d-4c55-9a3e-2d41f8e5c901";
+    private static final String MODEL = "qwen-plus";
+
+    /**
+     * 模型常见的一两个字的片段、带需要转义字符的片段、合并后的较长片段
+     */
+    @Param({"你好", "\"蛋白质\":\t20g", "一份早餐大约含有 350 千卡热量，其中蛋白质 20g、脂肪 12g、碳水化合物 40g。建议搭配一份水果。"})
+    private String content;
+
+    private byte[] data;
+    private DataBufferFactory bufferFactory;
+    private ObjectMapper objectMapper;
+    private SseEnvelope envelope;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        data = content.getBytes(StandardCharsets.UTF_8);
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        objectMapper = new ObjectMapper();
+        envelope = new SseEnvelope(
+                "data:{\"id\":" + objectMapper.writeValueAsString(CHAT_ID) + ",\"object\":\"chat.completion.chunk\",\"created\":",
+                ",\"model\":" + objectMapper.writeValueAsString(MODEL) + ",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"",
+                "\"},\"finish_reason\":null}]}\n\n".getBytes(StandardCharsets.US_ASCII));
+        // 两次调用可能跨过整秒，比较时忽略时间戳
+        String jackson = jacksonChunk().replaceFirst("\"created\":\\d+", "");
+        String frame = envelopeFrame().replaceFirst("\"created\":\\d+", "");
+        if (!jackson.equals(frame)) {
+            throw new IllegalStateException("两条路径的输出不一致:\n" + jackson + "\n" + frame);
+        }
+    }
+
+    /**
+     * 原来的路径：解码为字符串，构建 chunk 对象，Jackson 序列化后再编码为字节
+     */
+    @Benchmark
+    public void jackson(Blackhole blackhole) throws JsonProcessingException {
+        DataBuffer frame = jacksonFrame(source());
+        blackhole.consume(frame);
+        DataBufferUtils.release(frame);
+    }
+
+    /**
+     * 现在的路径：前缀和后缀预先编码，内容直接转义写入目标缓冲区
+     */
+    @Benchmark
+    public void envelope(Blackhole blackhole) {
+        DataBuffer frame = envelope.frame(bufferFactory, source());
+        blackhole.consume(frame);
+        DataBufferUtils.release(frame);
+    }
+
+    private DataBuffer source() {
+        DataBuffer source = bufferFactory.allocateBuffer(data.length);
+        source.write(data);
+        return source;
+    }
+
+    private DataBuffer jacksonFrame(DataBuffer source) throws JsonProcessingException {
+        String text = source.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(source);
+        OpenAiSseChunk chunk = new OpenAiSseChunk(CHAT_ID, "chat.completion.chunk", System.currentTimeMillis() / 1000,
+                MODEL, List.of(new OpenAiSseChunk.Choice(0, new OpenAiSseChunk.Delta(text), null)));
+        String sseData = "data:" + objectMapper.writeValueAsString(chunk) + "\n\n";
+        return bufferFactory.wrap(sseData.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String jacksonChunk() throws JsonProcessingException {
+        DataBuffer frame = jacksonFrame(source());
+        try {
+            return frame.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(frame);
+        }
+    }
+
+    private String envelopeFrame() {
+        DataBuffer frame = envelope.frame(bufferFactory, source());
+        try {
+            return frame.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(frame);
+        }
+    }
+}
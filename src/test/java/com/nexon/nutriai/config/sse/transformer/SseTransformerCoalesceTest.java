@@ -0,0 +1,96 @@
+package com.nexon.nutriai.config.sse.transformer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexon.nutriai.config.properties.SseProperties;
+import com.nexon.nutriai.config.sse.SseCoalescer;
+import com.nexon.nutriai.config.sse.SseContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 转换器在包装事件之前合并增量内容的测试
+ *
+ * 输入同步发出，窗口足够长：第一个增量单独输出，其余增量合并后只包装成一个事件。
+ */
+class SseTransformerCoalesceTest {
+
+    private static final String DONE = "data: [DONE]\n\n";
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final SseContext context = new SseContext("chat-1", "qwen", "message", bufferFactory, new ObjectMapper());
+
+    @Test
+    void openAiWrapsMergedDeltasInOneEnvelope() {
+        List<String> frames = transform(new OpenAiSseTransformer(coalescer(Duration.ofSeconds(10))),
+                "data:你\n\n", "data:好\n\n", "data:\"a\"\n\n");
+
+        assertThat(frames).hasSize(3);
+        assertThat(frames.get(0)).startsWith("data:{\"id\":\"chat-1\",\"object\":\"chat.completion.chunk\",\"created\":")
+                .endsWith(",\"model\":\"qwen\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"你\"},\"finish_reason\":null}]}\n\n");
+        assertThat(frames.get(1)).endsWith("\"delta\":{\"content\":\"好\\\"a\\\"\"},\"finish_reason\":null}]}\n\n");
+        assertThat(frames.get(2)).isEqualTo(DONE);
+    }
+
+    @Test
+    void nutriAiWrapsMergedDeltasInOneEnvelope() {
+        List<String> frames = transform(new NutriAiSseTransformer(coalescer(Duration.ofSeconds(10))),
+                "data:早\n\n", "data:餐\n\n", "data:吃\n\n");
+
+        assertThat(frames).hasSize(3);
+        assertThat(frames.get(0)).endsWith("\"payload\":{\"content\":\"早\"}}\n\n");
+        assertThat(frames.get(1)).endsWith("\"payload\":{\"content\":\"餐吃\"}}\n\n");
+        assertThat(frames.get(2)).isEqualTo(DONE);
+    }
+
+    @Test
+    void basicMergesPlainText() {
+        List<String> frames = transform(new BasicSseTransformer(coalescer(Duration.ofSeconds(10))), "a", "b\nc", "d");
+
+        assertThat(frames).containsExactly("data:a\n\n", "data:b\ndata:cd\n\n", DONE);
+    }
+
+    @Test
+    void keepsOneEventPerDeltaWhenCoalescingIsDisabled() {
+        List<String> frames = transform(new BasicSseTransformer(coalescer(Duration.ZERO)), "a", "b", "c");
+
+        assertThat(frames).containsExactly("data:a\n\n", "data:b\n\n", "data:c\n\n", DONE);
+    }
+
+    @Test
+    void passThroughJoinsWholeFrames() {
+        List<String> frames = transform(new BasicSseTransformer(coalescer(Duration.ofSeconds(10))),
+                "data:a\n\n", "data:b\n\n", "data:c\n\n");
+
+        assertThat(String.join("", frames)).isEqualTo("data:a\n\ndata:b\n\ndata:c\n\n");
+        assertThat(frames).containsExactly("data:a\n\n", "data:b\n\ndata:c\n\n");
+    }
+
+    private static SseCoalescer coalescer(Duration window) {
+        return new SseCoalescer(new SseProperties(new SseProperties.Coalesce(window, DataSize.ofKilobytes(8))));
+    }
+
+    private List<String> transform(AbstractSseTransformer transformer, String... chunks) {
+        Flux<DataBuffer> source = Flux.fromIterable(Arrays.stream(chunks)
+                .map(chunk -> (DataBuffer) bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8)))
+                .toList());
+        return transformer.transform(source, context)
+                .map(buffer -> {
+                    String frame = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return frame;
+                })
+                .collectList()
+                .block(Duration.ofSeconds(5));
+    }
+}
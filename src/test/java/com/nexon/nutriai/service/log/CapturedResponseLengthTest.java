@@ -0,0 +1,63 @@
+package com.nexon.nutriai.service.log;
+
+import com.nexon.nutriai.config.properties.LogProperties;
+import com.nexon.nutriai.dao.converter.TextCompression;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流式响应按 maxFieldLength 截断后写入存储字段的测试
+ */
+class CapturedResponseLengthTest {
+
+    private static final String OMITTED_MARKER = "\n\n...[省略 ";
+
+    private final ResponseCapture responseCapture = new ResponseCapture(new LogProperties(null, null, null, null, null));
+
+    @Test
+    void storedResponseRespectsMaxFieldLength() {
+        String stored = storedResponse(2048, "营养报告：蛋白质 20g，脂肪 10g。".repeat(500));
+
+        assertThat(stored).contains(OMITTED_MARKER);
+        String kept = stored.substring(0, stored.indexOf(OMITTED_MARKER));
+        assertThat(kept.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(2048);
+        assertThat(kept.length()).isLessThanOrEqualTo(2048);
+        assertThat("营养报告：蛋白质 20g，脂肪 10g。".repeat(500)).startsWith(kept);
+    }
+
+    @Test
+    void doesNotSplitCharacterAtLimit() {
+        // 每个汉字 3 字节，上限 10 字节只能放下 3 个字符
+        String stored = storedResponse(10, "一二三四五");
+
+        assertThat(stored).startsWith("一二三" + OMITTED_MARKER);
+    }
+
+    @Test
+    void keepsResponseWithinLimit() {
+        assertThat(storedResponse(2048, "short response")).isEqualTo("short response");
+    }
+
+    @Test
+    void unlimitedResponseIsKeptWhole() {
+        String response = "x".repeat(10_000);
+
+        assertThat(storedResponse(-1, response)).isEqualTo(response);
+    }
+
+    private String storedResponse(int maxFieldLength, String response) {
+        CaptureBuffer capture = responseCapture.open(maxFieldLength);
+        // 按模型流式输出的方式分段追加
+        for (int i = 0; i < response.length(); i += 7) {
+            capture.append(response.substring(i, Math.min(i + 7, response.length())));
+        }
+        LogEvent.Request request = new LogEvent.Request("nutritionReport", new Object[0], capture.finish(), null,
+                100, true, LocalDateTime.now(), maxFieldLength);
+        JournalEntry.Request entry = (JournalEntry.Request) LogBatchWriter.toEntry(request);
+        return TextCompression.decode(entry.row().responseData());
+    }
+}